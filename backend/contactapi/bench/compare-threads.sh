@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Platform-thread vs virtual-thread comparison on the qa (Postgres) profile.
+#
+# Usage (from backend/contactapi, with the .env variables exported and the jar built):
+#   JAVA=/path/to/jdk-21/bin/java bench/compare-threads.sh [concurrency levels...]
+#
+# Both runs use the same Hikari pool size (POOL) so the thread model is the only variable.
+# The virtual-thread run is started with -Djdk.tracePinnedThreads=short and the number of
+# pinned-thread traces is reported next to the numbers.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+JAVA=${JAVA:-java}
+JAR=$(ls target/contactapi-*.jar | head -1)
+BASE=http://localhost:8080/api/v1
+DURATION=${DURATION:-30}
+WARMUP=${WARMUP:-10}
+POOL=${POOL:-20}
+CONTACTS=${CONTACTS:-200}
+LEVELS=${*:-50 400 1000}
+PID=
+
+start() {
+    "$JAVA" -Djdk.tracePinnedThreads=short -jar "$JAR" \
+        --spring.profiles.active="$1" \
+        --spring.datasource.hikari.maximum-pool-size="$POOL" \
+        --logging.level.org.hibernate.SQL=INFO \
+        --logging.level.org.hibernate.orm.jdbc.bind=INFO \
+        --logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO \
+        > "target/bench-$2.log" 2>&1 &
+    PID=$!
+    until curl -s -o /dev/null "$BASE/public/"; do sleep 1; done
+}
+
+stop() {
+    if [ -n "$PID" ]; then
+        kill "$PID" && wait "$PID" 2>/dev/null || true
+        PID=
+    fi
+}
+trap stop EXIT
+
+seed() {
+    local user="bench-$RANDOM$RANDOM@bench.local"
+    curl -s -o /dev/null -X POST "$BASE/auth/signup" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"$user\",\"password\":\"bench\"}"
+    TOKEN=$(curl -s -X POST "$BASE/auth/login" -H 'Content-Type: application/json' \
+        -d "{\"username\":\"$user\",\"password\":\"bench\"}" | python3 -c 'import sys, json; print(json.load(sys.stdin)["jwt"])')
+    python3 -c "import json; print(json.dumps([{'firstname': 'Bench%d' % i, 'lastname': 'Contact'} for i in range($CONTACTS)]))" |
+        curl -s -o /dev/null -X POST "$BASE/contact/batch" -H "Authorization: Bearer $TOKEN" \
+            -H 'Content-Type: application/json' --data-binary @-
+}
+
+run() {
+    local mode=$1 profiles=$2
+    start "$profiles" "$mode"
+    seed
+    for c in $LEVELS; do
+        python3 bench/loadgen.py --url "$BASE/contact?size=20" --token "$TOKEN" -c "$c" -d "$WARMUP" > /dev/null
+        python3 bench/loadgen.py --url "$BASE/contact?size=20" --token "$TOKEN" -c "$c" -d "$DURATION" --label "$mode"
+    done
+    echo "{\"label\": \"$mode\", \"pinned_traces\": $(grep -c '<== monitors' "target/bench-$mode.log" || true)}"
+    stop
+}
+
+run platform qa
+run virtual qa,vthreads
@@ -0,0 +1,85 @@
+#!/usr/bin/env python3
+"""Closed-loop HTTP load generator (stdlib only).
+
+Each worker keeps one keep-alive connection and sends requests back to back until the
+duration elapses, then throughput and latency percentiles are printed as one JSON line.
+
+    python3 loadgen.py --url http://localhost:8080/api/v1/contact?size=20 --token $JWT -c 400 -d 30
+"""
+import argparse
+import http.client
+import json
+import threading
+import time
+import urllib.parse
+
+
+def worker(target, headers, deadline, latencies, errors, lock):
+    conn = None
+    local, failed = [], 0
+    while time.perf_counter() < deadline:
+        if conn is None:
+            conn = http.client.HTTPConnection(target.hostname, target.port or 80, timeout=60)
+        path = target.path + ("?" + target.query if target.query else "")
+        start = time.perf_counter()
+        try:
+            conn.request("GET", path, headers=headers)
+            response = conn.getresponse()
+            response.read()
+            if response.status >= 400:
+                failed += 1
+            else:
+                local.append(time.perf_counter() - start)
+        except (OSError, http.client.HTTPException):
+            failed += 1
+            conn.close()
+            conn = None
+    with lock:
+        latencies.extend(local)
+        errors[0] += failed
+
+
+def percentile(sorted_values, p):
+    if not sorted_values:
+        return 0.0
+    return sorted_values[min(len(sorted_values) - 1, int(len(sorted_values) * p))] * 1000
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("--url", required=True)
+    parser.add_argument("--token")
+    parser.add_argument("-c", "--concurrency", type=int, default=50)
+    parser.add_argument("-d", "--duration", type=float, default=30)
+    parser.add_argument("--label", default="")
+    args = parser.parse_args()
+
+    target = urllib.parse.urlsplit(args.url)
+    headers = {"Authorization": "Bearer " + args.token} if args.token else {}
+    latencies, errors, lock = [], [0], threading.Lock()
+    started = time.perf_counter()
+    deadline = started + args.duration
+    threads = [threading.Thread(target=worker, args=(target, headers, deadline, latencies, errors, lock))
+               for _ in range(args.concurrency)]
+    for thread in threads:
+        thread.start()
+    for thread in threads:
+        thread.join()
+    elapsed = time.perf_counter() - started
+
+    latencies.sort()
+    print(json.dumps({
+        "label": args.label,
+        "concurrency": args.concurrency,
+        "requests": len(latencies),
+        "errors": errors[0],
+        "rps": round(len(latencies) / elapsed, 1),
+        "p50_ms": round(percentile(latencies, 0.50), 1),
+        "p95_ms": round(percentile(latencies, 0.95), 1),
+        "p99_ms": round(percentile(latencies, 0.99), 1),
+        "max_ms": round(latencies[-1] * 1000, 1) if latencies else 0.0,
+    }))
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# End-to-end HTTP load test: starts the jar on the given profile, runs the mix in src/loadtest/java and
+# writes target/loadtest/<profile>-<label>.json. With BASELINE set, the run is compared against that report
+# and the script exits 1 on a regression.
+#
+# Usage (from backend/contactapi, with the .env variables exported for qa and the jar built):
+#   LABEL=main bench/loadtest.sh qa
+#   BASELINE=target/loadtest/qa-main.json LABEL=branch bench/loadtest.sh qa
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+JAVA=${JAVA:-java}
+JAR=$(ls target/contactapi-*.jar | head -1)
+BASE=http://localhost:8080/api/v1
+PROFILE=${1:-dev}
+LABEL=${LABEL:-run}
+USERS=${USERS:-20}
+CONTACTS=${CONTACTS:-50}
+WARMUP=${WARMUP:-10}
+DURATION=${DURATION:-60}
+THRESHOLD=${THRESHOLD:-10}
+REPORT=target/loadtest/$PROFILE-$LABEL.json
+PID=
+
+start() {
+    "$JAVA" -jar "$JAR" \
+        --spring.profiles.active="$PROFILE" \
+        --logging.level.org.hibernate.SQL=INFO \
+        --logging.level.org.hibernate.orm.jdbc.bind=INFO \
+        --logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO \
+        > "target/loadtest-$PROFILE.log" 2>&1 &
+    PID=$!
+    until curl -s -o /dev/null "$BASE/public/"; do sleep 1; done
+}
+
+stop() {
+    if [ -n "$PID" ]; then
+        kill "$PID" && wait "$PID" 2>/dev/null || true
+        PID=
+    fi
+}
+trap stop EXIT
+
+mvn -B -q -Ploadtest test-compile
+start
+mvn -B -q -Ploadtest exec:java -Dexec.args="--base-url $BASE --users $USERS --contacts $CONTACTS \
+    --warmup $WARMUP --duration $DURATION --label $PROFILE-$LABEL --out $REPORT"
+stop
+
+if [ -n "${BASELINE:-}" ]; then
+    mvn -B -q -Ploadtest exec:java -Dexec.mainClass=com.abbasza.contactapi.loadtest.LoadTestCompare \
+        -Dexec.args="$BASELINE $REPORT --threshold $THRESHOLD"
+fi
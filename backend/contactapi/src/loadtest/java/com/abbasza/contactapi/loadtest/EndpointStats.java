@@ -0,0 +1,21 @@
+package com.abbasza.contactapi.loadtest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Throughput and latency percentiles of one endpoint over its measurement window.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EndpointStats {
+    private long requests;
+    private long errors;
+    private double throughputRps;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private double maxMs;
+}
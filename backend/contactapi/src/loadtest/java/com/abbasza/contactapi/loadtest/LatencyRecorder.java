@@ -0,0 +1,43 @@
+package com.abbasza.contactapi.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Keeps every successful sample of one endpoint, so percentiles are exact rather than bucketed. A run of a few
+ * minutes stays in the low millions of samples, well within a long array.
+ */
+final class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized void error() {
+        errors++;
+    }
+
+    synchronized EndpointStats summarize(double windowSeconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new EndpointStats(count, errors, round(count / windowSeconds),
+                millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99), millis(sorted, 1.0));
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percentile) - 1);
+        return round(sorted[Math.max(index, 0)] / 1_000_000.0);
+    }
+
+    static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
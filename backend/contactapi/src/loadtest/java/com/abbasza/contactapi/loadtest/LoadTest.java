@@ -0,0 +1,133 @@
+package com.abbasza.contactapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * HTTP load test against a running contactapi. Each virtual user signs up, logs in and seeds its contacts, then
+ * runs a weighted create/list/search/get/update/delete mix. Setup requests are reported over the setup window and
+ * mix requests over the measurement window; the warmup is discarded. The report is written as JSON.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dexec.args="--users 20 --duration 60 --label main"
+ * </pre>
+ *
+ * Options: {@code --base-url} (http://localhost:8080/api/v1), {@code --users} (20), {@code --contacts} per user
+ * (50), {@code --warmup} seconds (10), {@code --duration} seconds (60), {@code --seed} (1), {@code --label} (run),
+ * {@code --out} (target/loadtest/&lt;label&gt;.json).
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = Options.parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080/api/v1");
+        int users = Integer.parseInt(options.getOrDefault("users", "20"));
+        int contacts = Integer.parseInt(options.getOrDefault("contacts", "50"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        String label = options.getOrDefault("label", "run");
+        Path out = Path.of(options.getOrDefault("out", "target/loadtest/" + label + ".json"));
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            virtualUsers.add(new VirtualUser(client, objectMapper, baseUrl, i, seed + i));
+        }
+
+        LoadTestReport report = new LoadTestReport();
+        report.setLabel(label);
+        report.setBaseUrl(baseUrl);
+        report.setStartedAt(Instant.now().toString());
+        report.setUsers(users);
+        report.setWarmupSeconds(warmup);
+        report.setDurationSeconds(duration);
+
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        try {
+            Metrics setup = new Metrics(false);
+            long setupStart = System.nanoTime();
+            runAll(executor, virtualUsers, user -> user.setUp(setup, runId, contacts));
+            report.getEndpoints().putAll(setup.summarize(seconds(System.nanoTime() - setupStart)));
+            System.out.printf("setup: %d users with %d contacts each%n", users, contacts);
+
+            Metrics discarded = new Metrics(true);
+            long warmupEnd = System.nanoTime() + Duration.ofSeconds(warmup).toNanos();
+            runAll(executor, virtualUsers, user -> user.run(discarded, warmupEnd));
+
+            Metrics measured = new Metrics(true);
+            long measureStart = System.nanoTime();
+            long measureEnd = measureStart + Duration.ofSeconds(duration).toNanos();
+            runAll(executor, virtualUsers, user -> user.run(measured, measureEnd));
+            double window = seconds(System.nanoTime() - measureStart);
+            report.getEndpoints().putAll(measured.summarize(window));
+            report.setTotal(measured.summarizeTotal(window));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        objectMapper.writeValue(out.toFile(), report);
+        print(report);
+        System.out.println("report: " + out);
+    }
+
+    private static void runAll(ExecutorService executor, List<VirtualUser> users, UserTask task)
+            throws InterruptedException, ExecutionException {
+        List<Future<Void>> futures = new ArrayList<>();
+        for (VirtualUser user : users) {
+            futures.add(executor.submit((Callable<Void>) () -> {
+                task.run(user);
+                return null;
+            }));
+        }
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private static void print(LoadTestReport report) {
+        System.out.printf("%-22s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        report.getEndpoints().forEach((endpoint, stats) -> printRow(endpoint, stats));
+        printRow("total", report.getTotal());
+    }
+
+    private static void printRow(String endpoint, EndpointStats stats) {
+        System.out.printf("%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", endpoint, stats.getRequests(),
+                stats.getErrors(), stats.getThroughputRps(), stats.getP50Ms(), stats.getP95Ms(), stats.getP99Ms(),
+                stats.getMaxMs());
+    }
+
+    @FunctionalInterface
+    private interface UserTask {
+        void run(VirtualUser user) throws IOException, InterruptedException;
+    }
+}
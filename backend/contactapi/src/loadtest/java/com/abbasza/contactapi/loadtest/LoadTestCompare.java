@@ -0,0 +1,90 @@
+package com.abbasza.contactapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a candidate report against a baseline and exits with status 1 when any endpoint regressed: p95 or p99
+ * up, or throughput down, by more than {@code --threshold} percent (10), or errors where the baseline had none.
+ * Latency changes smaller than {@code --min-ms} (1.0) are treated as noise.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dexec.mainClass=com.abbasza.contactapi.loadtest.LoadTestCompare \
+ *     -Dexec.args="target/loadtest/main.json target/loadtest/branch.json --threshold 15"
+ * </pre>
+ */
+public final class LoadTestCompare {
+
+    private LoadTestCompare() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = Options.parse(args);
+        if (!options.containsKey("0") || !options.containsKey("1")) {
+            System.err.println("Usage: LoadTestCompare <baseline.json> <candidate.json> [--threshold 10] [--min-ms 1]");
+            System.exit(2);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        LoadTestReport baseline = objectMapper.readValue(new File(options.get("0")), LoadTestReport.class);
+        LoadTestReport candidate = objectMapper.readValue(new File(options.get("1")), LoadTestReport.class);
+        double threshold = Double.parseDouble(options.getOrDefault("threshold", "10")) / 100;
+        double minMs = Double.parseDouble(options.getOrDefault("min-ms", "1"));
+
+        List<String> regressions = compare(baseline, candidate, threshold, minMs);
+        if (regressions.isEmpty()) {
+            System.out.println("No regressions");
+            return;
+        }
+        System.out.println("Regressions:");
+        regressions.forEach(regression -> System.out.println("  " + regression));
+        System.exit(1);
+    }
+
+    static List<String> compare(LoadTestReport baseline, LoadTestReport candidate, double threshold, double minMs) {
+        Map<String, EndpointStats> base = new TreeMap<>(baseline.getEndpoints());
+        Map<String, EndpointStats> next = new TreeMap<>(candidate.getEndpoints());
+        base.put("total", baseline.getTotal());
+        next.put("total", candidate.getTotal());
+
+        System.out.printf("%-22s %20s %20s %22s %12s%n", "endpoint", "p95 ms", "p99 ms", "req/s", "errors");
+        List<String> regressions = new ArrayList<>();
+        base.forEach((endpoint, before) -> {
+            EndpointStats after = next.get(endpoint);
+            if (after == null) {
+                regressions.add(endpoint + ": missing from " + candidate.getLabel());
+                return;
+            }
+            System.out.printf("%-22s %8.2f -> %8.2f %8.2f -> %8.2f %9.1f -> %9.1f %4d -> %4d%n", endpoint,
+                    before.getP95Ms(), after.getP95Ms(), before.getP99Ms(), after.getP99Ms(),
+                    before.getThroughputRps(), after.getThroughputRps(), before.getErrors(), after.getErrors());
+            latency(regressions, endpoint, "p95", before.getP95Ms(), after.getP95Ms(), threshold, minMs);
+            latency(regressions, endpoint, "p99", before.getP99Ms(), after.getP99Ms(), threshold, minMs);
+            if (after.getThroughputRps() < before.getThroughputRps() * (1 - threshold)) {
+                regressions.add(String.format("%s: throughput %.1f -> %.1f req/s (%s)", endpoint,
+                        before.getThroughputRps(), after.getThroughputRps(),
+                        change(before.getThroughputRps(), after.getThroughputRps())));
+            }
+            if (before.getErrors() == 0 && after.getErrors() > 0) {
+                regressions.add(String.format("%s: %d errors (baseline had none)", endpoint, after.getErrors()));
+            }
+        });
+        return regressions;
+    }
+
+    private static void latency(List<String> regressions, String endpoint, String percentile,
+                                double before, double after, double threshold, double minMs) {
+        if (after > before * (1 + threshold) && after - before >= minMs) {
+            regressions.add(String.format("%s: %s %.2f -> %.2f ms (%s)", endpoint, percentile, before, after,
+                    change(before, after)));
+        }
+    }
+
+    private static String change(double before, double after) {
+        return before == 0 ? "new" : String.format("%+.0f%%", (after - before) / before * 100);
+    }
+}
@@ -0,0 +1,23 @@
+package com.abbasza.contactapi.loadtest;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Machine-readable result of one run, written as JSON and read back by {@link LoadTestCompare}.
+ */
+@Data
+@NoArgsConstructor
+public class LoadTestReport {
+    private String label;
+    private String baseUrl;
+    private String startedAt;
+    private int users;
+    private int warmupSeconds;
+    private int durationSeconds;
+    private Map<String, EndpointStats> endpoints = new TreeMap<>();
+    private EndpointStats total;
+}
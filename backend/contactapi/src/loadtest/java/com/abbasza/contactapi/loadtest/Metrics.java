@@ -0,0 +1,42 @@
+package com.abbasza.contactapi.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency recorders of one phase, keyed by endpoint ("GET /contact/{id}"). The mix phases also feed a
+ * {@code total} recorder across all endpoints.
+ */
+final class Metrics {
+    private final Map<String, LatencyRecorder> recorders = new ConcurrentHashMap<>();
+    private final LatencyRecorder total;
+
+    Metrics(boolean withTotal) {
+        this.total = withTotal ? new LatencyRecorder() : null;
+    }
+
+    void record(String endpoint, long nanos) {
+        recorders.computeIfAbsent(endpoint, k -> new LatencyRecorder()).record(nanos);
+        if (total != null) {
+            total.record(nanos);
+        }
+    }
+
+    void error(String endpoint) {
+        recorders.computeIfAbsent(endpoint, k -> new LatencyRecorder()).error();
+        if (total != null) {
+            total.error();
+        }
+    }
+
+    Map<String, EndpointStats> summarize(double windowSeconds) {
+        Map<String, EndpointStats> stats = new TreeMap<>();
+        recorders.forEach((endpoint, recorder) -> stats.put(endpoint, recorder.summarize(windowSeconds)));
+        return stats;
+    }
+
+    EndpointStats summarizeTotal(double windowSeconds) {
+        return total.summarize(windowSeconds);
+    }
+}
@@ -0,0 +1,35 @@
+package com.abbasza.contactapi.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal {@code --name value} parser. Arguments without a leading {@code --} are collected under their position,
+ * as "0", "1", ...
+ */
+final class Options {
+
+    private Options() {
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--")) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                options.put(args[i].substring(2), args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        for (int i = 0; i < positional.size(); i++) {
+            options.put(Integer.toString(i), positional.get(i));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,187 @@
+package com.abbasza.contactapi.loadtest;
+
+import com.abbasza.contactapi.dto.*;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * One closed-loop client: signs up, logs in and seeds its own contacts, then runs the weighted request mix until
+ * the phase deadline. Each user only touches its own contacts, so updates never conflict across users.
+ */
+final class VirtualUser {
+    private static final String PASSWORD = "loadtest";
+    private static final int MIN_CONTACTS = 5;
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final int index;
+    private final Random random;
+    private final List<UUID> ids = new ArrayList<>();
+    private final Map<UUID, Long> versions = new HashMap<>();
+    private String token;
+    private int created;
+
+    VirtualUser(HttpClient client, ObjectMapper objectMapper, String baseUrl, int index, long seed) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.index = index;
+        this.random = new Random(seed);
+    }
+
+    void setUp(Metrics metrics, String runId, int contacts) throws IOException, InterruptedException {
+        String email = "loadtest-" + runId + "-" + index + "@loadtest.local";
+
+        SignupRequestDto signup = new SignupRequestDto();
+        signup.setEmail(email);
+        signup.setPassword(PASSWORD);
+        expect(metrics, "POST /auth/signup", post("/auth/signup", signup), 201);
+
+        LoginRequestDto login = new LoginRequestDto();
+        login.setUsername(email);
+        login.setPassword(PASSWORD);
+        HttpResponse<byte[]> loginResponse = expect(metrics, "POST /auth/login", post("/auth/login", login), 200);
+        token = objectMapper.readValue(loginResponse.body(), LoginResponseDto.class).getJwt();
+
+        List<ContactRequestDto> batch = new ArrayList<>();
+        for (int i = 0; i < contacts; i++) {
+            batch.add(contact());
+        }
+        HttpResponse<byte[]> batchResponse = expect(metrics, "POST /contact/batch", post("/contact/batch", batch), 200);
+        for (ContactBatchResultDto result : objectMapper.readValue(batchResponse.body(),
+                new TypeReference<List<ContactBatchResultDto>>() {})) {
+            if (result.getId() != null) {
+                ids.add(result.getId());
+                versions.put(result.getId(), 0L);
+            }
+        }
+    }
+
+    void run(Metrics metrics, long deadlineNanos) throws InterruptedException {
+        while (System.nanoTime() < deadlineNanos) {
+            try {
+                step(metrics);
+            } catch (IOException e) {
+                // already counted as an error; keep the loop going like a real client would
+            }
+        }
+    }
+
+    private void step(Metrics metrics) throws IOException, InterruptedException {
+        int roll = random.nextInt(100);
+        if (roll < 30) {
+            expect(metrics, "GET /contact", get("/contact?page=" + random.nextInt(3) + "&size=20"), 200);
+        } else if (roll < 50) {
+            String query = URLEncoder.encode("Load" + random.nextInt(10), StandardCharsets.UTF_8);
+            expect(metrics, "GET /contact/s", get("/contact/s?query=" + query + "&size=20"), 200);
+        } else if (roll < 70) {
+            expect(metrics, "GET /contact/{id}", get("/contact/" + pick()), 200);
+        } else if (roll < 80 || ids.size() < MIN_CONTACTS) {
+            create(metrics);
+        } else if (roll < 95) {
+            update(metrics);
+        } else {
+            delete(metrics);
+        }
+    }
+
+    private void create(Metrics metrics) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = expect(metrics, "POST /contact", post("/contact", contact()), 201);
+        ContactDetailResponseDto contact = objectMapper.readValue(response.body(), ContactDetailResponseDto.class);
+        ids.add(contact.getId());
+        versions.put(contact.getId(), contact.getVersion());
+    }
+
+    private void update(Metrics metrics) throws IOException, InterruptedException {
+        UUID id = pick();
+        ContactRequestDto request = contact();
+        request.setVersion(versions.get(id));
+        HttpRequest put = authorized("/contact/" + id)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(request)))
+                .build();
+        HttpResponse<byte[]> response = expect(metrics, "PUT /contact/{id}", put, 200);
+        versions.put(id, objectMapper.readValue(response.body(), ContactDetailResponseDto.class).getVersion());
+    }
+
+    private void delete(Metrics metrics) throws IOException, InterruptedException {
+        UUID id = ids.remove(random.nextInt(ids.size()));
+        versions.remove(id);
+        expect(metrics, "DELETE /contact/{id}", authorized("/contact/" + id).DELETE().build(), 204);
+    }
+
+    private UUID pick() {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private ContactRequestDto contact() {
+        int n = created++;
+        ContactEmailDto email = new ContactEmailDto();
+        email.setEmailtype(EmailType.WORK);
+        email.setEmailvalue("load" + index + "-" + n + "@work.local");
+        ContactPhoneDto phone = new ContactPhoneDto();
+        phone.setPhonetype(PhoneType.PERSONAL);
+        phone.setPhonevalue("555-" + String.format("%04d", n % 10_000));
+        ContactRequestDto request = new ContactRequestDto();
+        request.setFirstname("Load" + n);
+        request.setLastname("User" + index);
+        request.setEmails(new ArrayList<>(List.of(email)));
+        request.setPhones(new ArrayList<>(List.of(phone)));
+        return request;
+    }
+
+    private HttpRequest get(String path) {
+        return authorized(path).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body) throws IOException {
+        HttpRequest.Builder builder = token == null ? HttpRequest.newBuilder(URI.create(baseUrl + path)) : authorized(path);
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+    }
+
+    /**
+     * Sends the request and records its latency, or an error when the status differs from {@code status}.
+     * Errors are thrown as {@link IOException} so the caller skips any follow-up on the response.
+     */
+    private HttpResponse<byte[]> expect(Metrics metrics, String endpoint, HttpRequest request, int status)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            metrics.error(endpoint);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (response.statusCode() != status) {
+            metrics.error(endpoint);
+            throw new IOException(endpoint + " returned " + response.statusCode() + ", expected " + status);
+        }
+        metrics.record(endpoint, elapsed);
+        return response;
+    }
+}
@@ -0,0 +1,26 @@
+package com.abbasza.contactapi.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Stops startup when virtual threads are requested on a runtime that has none. Spring Boot silently ignores
+ * {@code spring.threads.virtual.enabled} before Java 21, which would leave the {@code vthreads} profile serving
+ * on platform threads behind a connection pool sized for virtual ones.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+    private static final int MIN_JAVA_VERSION = 21;
+
+    public VirtualThreadsConfig() {
+        requireVirtualThreads(Runtime.version().feature());
+    }
+
+    static void requireVirtualThreads(int javaVersion) {
+        if (javaVersion < MIN_JAVA_VERSION) {
+            throw new IllegalStateException("spring.threads.virtual.enabled needs Java " + MIN_JAVA_VERSION
+                    + " or newer, but this runtime is Java " + javaVersion);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.abbasza.contactapi.controller;
 
 import com.abbasza.contactapi.dto.LoginRequestDto;
 import com.abbasza.contactapi.dto.LoginResponseDto;
+import com.abbasza.contactapi.dto.RefreshRequestDto;
 import com.abbasza.contactapi.dto.SignupRequestDto;
 import com.abbasza.contactapi.dto.SignupResponseDto;
 import com.abbasza.contactapi.security.AuthService;
@@ -26,6 +27,11 @@ public class AuthController {
         return ResponseEntity.ok().body(authService.login(loginRequestDto));
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDto> refresh(@RequestBody RefreshRequestDto refreshRequestDto){
+        return ResponseEntity.ok().body(authService.refresh(refreshRequestDto));
+    }
+
     @PostMapping("/signup")
     public ResponseEntity<SignupResponseDto> signup(@RequestBody SignupRequestDto signupRequestDto){
         SignupResponseDto newUser = authService.signup(signupRequestDto);
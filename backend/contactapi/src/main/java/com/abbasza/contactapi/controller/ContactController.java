@@ -1,19 +1,36 @@
 package com.abbasza.contactapi.controller;
 
+import com.abbasza.contactapi.dto.ContactBatchResultDto;
+import com.abbasza.contactapi.dto.ContactChangesResponseDto;
 import com.abbasza.contactapi.dto.ContactDetailResponseDto;
+import com.abbasza.contactapi.dto.ContactImportJobDto;
+import com.abbasza.contactapi.dto.ContactPageResponseDto;
 import com.abbasza.contactapi.dto.ContactRequestDto;
 import com.abbasza.contactapi.dto.ContactResponseDto;
+import com.abbasza.contactapi.dto.ContactSliceResponseDto;
+import com.abbasza.contactapi.security.UserPrincipal;
+import com.abbasza.contactapi.service.ContactChangeService;
+import com.abbasza.contactapi.service.ContactExportFormat;
+import com.abbasza.contactapi.service.ContactExportService;
+import com.abbasza.contactapi.service.ContactImportService;
 import com.abbasza.contactapi.service.ContactService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -21,57 +38,147 @@ import java.util.UUID;
 @RequestMapping("/contact")
 public class ContactController {
     private final ContactService contactService;
+    private final ContactExportService contactExportService;
+    private final ContactImportService contactImportService;
+    private final ContactChangeService contactChangeService;
 
     @GetMapping
-    public ResponseEntity<Page<ContactResponseDto>> getAllContacts(@RequestParam(value = "page", defaultValue = "0") int page,
-                                                                   @RequestParam(value = "size", defaultValue = "10") int size) {
+    public ResponseEntity<ContactPageResponseDto> getAllContacts(@RequestParam(value = "page", defaultValue = "0") int page,
+                                                                 @RequestParam(value = "size", defaultValue = "10") int size,
+                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        Page<ContactResponseDto> contactPage = contactService.getAllContacts(username, page, size);
-        return ResponseEntity.ok().body(contactPage);
+        UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        long version = contactService.getContactsVersion(userId);
+        if (ETags.matches(ifNoneMatch, ETags.of(userId, version))) {
+            return ETags.notModified(ETags.of(userId, version));
+        }
+        Page<ContactResponseDto> contactPage = contactService.getAllContacts(userId, page, size);
+        ContactPageResponseDto body = new ContactPageResponseDto(contactPage.getContent(), contactPage.getNumber(),
+                contactPage.getSize(), contactPage.getTotalElements(), contactPage.getTotalPages());
+        return ETags.ok(body, userId, version);
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<ContactSliceResponseDto> getContactsAfter(@RequestParam(value = "cursor") String cursor,
+                                                                    @RequestParam(value = "size", defaultValue = "10") int size,
+                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        long version = contactService.getContactsVersion(userId);
+        if (ETags.matches(ifNoneMatch, ETags.of(userId, version))) {
+            return ETags.notModified(ETags.of(userId, version));
+        }
+        ContactSliceResponseDto contactSlice = contactService.getContactsAfter(userId, cursor, size);
+        return ETags.ok(contactSlice, userId, version);
     }
 
     @GetMapping("/s")
-    public ResponseEntity<List<ContactResponseDto>> getSearchContacts(@RequestParam(value = "query") String query) {
+    public ResponseEntity<List<ContactResponseDto>> getSearchContacts(@RequestParam(value = "query") String query,
+                                                                      @RequestParam(value = "page", defaultValue = "0") int page,
+                                                                      @RequestParam(value = "size", defaultValue = "10") int size) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        List<ContactResponseDto> searchContacts = contactService.getSearchContacts(username, query);
+        UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        List<ContactResponseDto> searchContacts = contactService.getSearchContacts(userId, query, page, size);
         return ResponseEntity.ok().body(searchContacts);
     }
 
+    @GetMapping("/export")
+    public void exportContacts(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                               HttpServletResponse response) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        ContactExportFormat exportFormat = ContactExportFormat.from(format);
+        response.setContentType(exportFormat.getMediaType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("contacts." + exportFormat.getExtension()).build().toString());
+        contactExportService.export(userId, exportFormat, response.getOutputStream());
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ContactImportJobDto> importContacts(@RequestParam("file") MultipartFile file,
+                                                              @RequestParam(value = "format", required = false) String format) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        ContactImportJobDto job = contactImportService.submit(userId, file, format);
+        return ResponseEntity.accepted().location(URI.create("/contact/import/" + job.getJobId())).body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ContactImportJobDto> getImportJob(@PathVariable UUID jobId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        return ResponseEntity.of(contactImportService.getJob(userId, jobId));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ContactChangesResponseDto> getChanges(@RequestParam(value = "since", required = false) String since,
+                                                                @RequestParam(value = "size", defaultValue = "100") int size) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        return contactChangeService.getChanges(userId, since, size)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE).build());
+    }
+
     @GetMapping("/{contactId}")
-    public ResponseEntity<ContactDetailResponseDto> getContact(@PathVariable UUID contactId) {
+    public ResponseEntity<ContactDetailResponseDto> getContact(@PathVariable UUID contactId,
+                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            ContactDetailResponseDto contactDetailResponseDto = contactService.getContact(username, contactId);
-            return ResponseEntity.ok().body(contactDetailResponseDto);
+            UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+            if (ifNoneMatch != null) {
+                Optional<Long> version = contactService.getContactVersion(userId, contactId);
+                if (version.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
+                if (ETags.matches(ifNoneMatch, ETags.of(contactId, version.get()))) {
+                    return ETags.notModified(ETags.of(contactId, version.get()));
+                }
+            }
+            ContactDetailResponseDto contactDetailResponseDto = contactService.getContact(userId, contactId);
+            return ETags.ok(contactDetailResponseDto, contactId, contactDetailResponseDto.getVersion());
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    @PostMapping("/details")
+    public ResponseEntity<List<ContactDetailResponseDto>> getContacts(@RequestBody List<UUID> contactIds) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        List<ContactDetailResponseDto> contacts = contactService.getContacts(userId, contactIds);
+        return ResponseEntity.ok().body(contacts);
+    }
+
     @PostMapping
     public ResponseEntity<ContactDetailResponseDto> createContact(@RequestBody ContactRequestDto contactRequestDto) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        ContactDetailResponseDto newContact = contactService.saveContact(username, contactRequestDto);
+        UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        ContactDetailResponseDto newContact = contactService.saveContact(userId, contactRequestDto);
         return ResponseEntity.created(URI.create("/contact/" + newContact.getId())).body(newContact);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ContactBatchResultDto>> createContacts(@RequestBody List<ContactRequestDto> contactRequestDtos) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        List<ContactBatchResultDto> results = contactService.saveContacts(userId, contactRequestDtos);
+        return ResponseEntity.ok().body(results);
+    }
+
     @PutMapping("/{contactId}")
     public ResponseEntity<ContactDetailResponseDto> updateContact(@PathVariable UUID contactId, @RequestBody ContactRequestDto updateContactRequestDto) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        ContactDetailResponseDto contactDetailResponseDto = contactService.updateContact(username, contactId, updateContactRequestDto);
+        UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        ContactDetailResponseDto contactDetailResponseDto = contactService.updateContact(userId, contactId, updateContactRequestDto);
         return ResponseEntity.ok().body(contactDetailResponseDto);
     }
 
     @DeleteMapping("/{contactId}")
     public ResponseEntity<HttpStatus> deleteContact(@PathVariable UUID contactId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        boolean removed = contactService.deleteContactById(username, contactId);
+        UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        boolean removed = contactService.deleteContactById(userId, contactId);
         return removed ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 }
@@ -0,0 +1,55 @@
+package com.abbasza.contactapi.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+
+/**
+ * Strong entity tags built from version columns, so a matching {@code If-None-Match} can be answered from the version
+ * alone. Tags carry the owning id as well, because the same URL serves different users.
+ */
+final class ETags {
+    /**
+     * Responses may be stored by the client only, and must be revalidated before reuse.
+     */
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ETags() {
+    }
+
+    static String of(UUID id, long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match} (RFC 9110 section 13.1.2).
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    static <T> ResponseEntity<T> ok(T body, UUID id, Long version) {
+        if (version == null) {
+            return ResponseEntity.ok().body(body);
+        }
+        return ResponseEntity.ok().eTag(of(id, version)).cacheControl(REVALIDATE).body(body);
+    }
+}
@@ -4,15 +4,20 @@ import com.abbasza.contactapi.dto.ChangePassRequestDto;
 import com.abbasza.contactapi.dto.GetSelfResponseDto;
 import com.abbasza.contactapi.dto.UpdateUserRequestDto;
 import com.abbasza.contactapi.dto.UpdateUserResponseDto;
+import com.abbasza.contactapi.security.UserPrincipal;
 import com.abbasza.contactapi.service.UserService;
 import jakarta.security.auth.message.AuthException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+import java.util.UUID;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/user")
@@ -20,11 +25,18 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
-    public ResponseEntity<GetSelfResponseDto> getSelf(){
+    public ResponseEntity<GetSelfResponseDto> getSelf(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
+        if (ifNoneMatch != null) {
+            UUID userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+            Optional<Long> version = userService.getUserVersion(userId);
+            if (version.isPresent() && ETags.matches(ifNoneMatch, ETags.of(userId, version.get()))) {
+                return ETags.notModified(ETags.of(userId, version.get()));
+            }
+        }
         GetSelfResponseDto getSelfResponseDto = userService.getUser(username);
-        return ResponseEntity.ok().body(getSelfResponseDto);
+        return ETags.ok(getSelfResponseDto, getSelfResponseDto.getId(), getSelfResponseDto.getVersion());
     }
 
     @PutMapping("/edit")
@@ -0,0 +1,18 @@
+package com.abbasza.contactapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactBatchResultDto {
+    private int index;
+    private UUID id;
+    private HttpStatus status;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package com.abbasza.contactapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactChangesResponseDto {
+    private List<ContactDetailResponseDto> changed;
+    private List<UUID> deleted;
+    private String nextToken;
+    private boolean hasMore;
+}
@@ -8,6 +8,7 @@ import java.util.UUID;
 @Data
 public class ContactDetailResponseDto {
     private UUID id;
+    private Long version;
     private String title;
     private String firstname;
     private String lastname;
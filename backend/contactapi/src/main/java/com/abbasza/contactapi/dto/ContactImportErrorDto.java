@@ -0,0 +1,13 @@
+package com.abbasza.contactapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactImportErrorDto {
+    private long line;
+    private String error;
+}
@@ -0,0 +1,27 @@
+package com.abbasza.contactapi.dto;
+
+import com.abbasza.contactapi.model.type.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactImportJobDto {
+    private UUID jobId;
+    private String format;
+    private ImportStatus status;
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private List<ContactImportErrorDto> errors;
+    private boolean errorsTruncated;
+    private String message;
+    private LocalDateTime createdTime;
+    private LocalDateTime finishedTime;
+}
@@ -0,0 +1,25 @@
+package com.abbasza.contactapi.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One offset page of contact summaries. Written by {@link ContactPageSerializer}; {@code v} versions the shape.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonSerialize(using = ContactPageSerializer.class)
+public class ContactPageResponseDto {
+    public static final int FORMAT_VERSION = 1;
+
+    private List<ContactResponseDto> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+}
@@ -0,0 +1,69 @@
+package com.abbasza.contactapi.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Streams {@link ContactPageResponseDto} field by field, skipping bean introspection. Page metadata is always
+ * written; contact fields that are null are left out, as {@code JsonInclude.Include.NON_DEFAULT} would for these
+ * types. Every field of {@link ContactResponseDto} has to be written here, or it disappears from the page.
+ */
+public class ContactPageSerializer extends StdSerializer<ContactPageResponseDto> {
+    private static final SerializedString V = new SerializedString("v");
+    private static final SerializedString CONTENT = new SerializedString("content");
+    private static final SerializedString PAGE = new SerializedString("page");
+    private static final SerializedString SIZE = new SerializedString("size");
+    private static final SerializedString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializedString TOTAL_PAGES = new SerializedString("totalPages");
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString FIRSTNAME = new SerializedString("firstname");
+    private static final SerializedString LASTNAME = new SerializedString("lastname");
+
+    public ContactPageSerializer() {
+        super(ContactPageResponseDto.class);
+    }
+
+    @Override
+    public void serialize(ContactPageResponseDto page, JsonGenerator json, SerializerProvider provider) throws IOException {
+        json.writeStartObject(page);
+        json.writeFieldName(V);
+        json.writeNumber(ContactPageResponseDto.FORMAT_VERSION);
+        json.writeFieldName(CONTENT);
+        json.writeStartArray();
+        if (page.getContent() != null) {
+            for (ContactResponseDto contact : page.getContent()) {
+                json.writeStartObject();
+                if (contact.getId() != null) {
+                    json.writeFieldName(ID);
+                    json.writeString(contact.getId().toString());
+                }
+                writeText(json, TITLE, contact.getTitle());
+                writeText(json, FIRSTNAME, contact.getFirstname());
+                writeText(json, LASTNAME, contact.getLastname());
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+        json.writeFieldName(PAGE);
+        json.writeNumber(page.getPage());
+        json.writeFieldName(SIZE);
+        json.writeNumber(page.getSize());
+        json.writeFieldName(TOTAL_ELEMENTS);
+        json.writeNumber(page.getTotalElements());
+        json.writeFieldName(TOTAL_PAGES);
+        json.writeNumber(page.getTotalPages());
+        json.writeEndObject();
+    }
+
+    private static void writeText(JsonGenerator json, SerializedString name, String value) throws IOException {
+        if (value != null) {
+            json.writeFieldName(name);
+            json.writeString(value);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.util.List;
 
 @Data
 public class ContactRequestDto {
+    private Long version;
     private String title;
     private String firstname;
     private String lastname;
@@ -1,10 +1,14 @@
 package com.abbasza.contactapi.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.UUID;
 
 @Data
+@AllArgsConstructor
+@NoArgsConstructor
 public class ContactResponseDto {
     private UUID id;
     private String title;
@@ -0,0 +1,16 @@
+package com.abbasza.contactapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactSliceResponseDto {
+    private List<ContactResponseDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -10,4 +10,5 @@ public class GetSelfResponseDto {
     private String username;
     private String firstname;
     private String lastname;
+    private Long version;
 }
@@ -12,4 +12,5 @@ import java.util.UUID;
 public class LoginResponseDto {
     private UUID userId;
     private String jwt;
+    private String refreshToken;
 }
@@ -0,0 +1,8 @@
+package com.abbasza.contactapi.dto;
+
+import lombok.Data;
+
+@Data
+public class RefreshRequestDto {
+    private String refreshToken;
+}
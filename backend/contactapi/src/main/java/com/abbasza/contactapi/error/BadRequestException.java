@@ -0,0 +1,15 @@
+package com.abbasza.contactapi.error;
+
+/**
+ * Client input the service cannot act on, such as a malformed cursor or an oversized batch. Answered with 400.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,50 @@
+package com.abbasza.contactapi.mapper;
+
+import com.abbasza.contactapi.dto.ContactDetailResponseDto;
+import com.abbasza.contactapi.dto.ContactEmailDto;
+import com.abbasza.contactapi.dto.ContactPhoneDto;
+import com.abbasza.contactapi.dto.ContactResponseDto;
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.ContactEmail;
+import com.abbasza.contactapi.model.ContactPhone;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * Compile-time generated mappings between contact entities and their DTOs.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface ContactMapper {
+
+    @Mapping(target = "firstname", source = "firstName")
+    @Mapping(target = "lastname", source = "lastName")
+    ContactResponseDto toContactResponse(Contact contact);
+
+    @Mapping(target = "firstname", source = "firstName")
+    @Mapping(target = "lastname", source = "lastName")
+    ContactDetailResponseDto toContactDetailResponse(Contact contact);
+
+    /**
+     * Detail view built from children loaded separately from the contact.
+     */
+    @Mapping(target = "id", source = "contact.id")
+    @Mapping(target = "version", source = "contact.version")
+    @Mapping(target = "title", source = "contact.title")
+    @Mapping(target = "firstname", source = "contact.firstName")
+    @Mapping(target = "lastname", source = "contact.lastName")
+    @Mapping(target = "emails", source = "emails")
+    @Mapping(target = "phones", source = "phones")
+    ContactDetailResponseDto toContactDetailResponse(Contact contact, List<ContactEmail> emails, List<ContactPhone> phones);
+
+    @Mapping(target = "emailtype", source = "emailType")
+    @Mapping(target = "emailvalue", source = "emailValue")
+    ContactEmailDto toContactEmailDto(ContactEmail contactEmail);
+
+    @Mapping(target = "phonetype", source = "phoneType")
+    @Mapping(target = "phonevalue", source = "phoneValue")
+    ContactPhoneDto toContactPhoneDto(ContactPhone contactPhone);
+}
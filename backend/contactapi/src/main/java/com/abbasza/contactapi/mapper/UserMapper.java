@@ -0,0 +1,24 @@
+package com.abbasza.contactapi.mapper;
+
+import com.abbasza.contactapi.dto.GetSelfResponseDto;
+import com.abbasza.contactapi.dto.UpdateUserResponseDto;
+import com.abbasza.contactapi.model.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Compile-time generated mappings between {@link User} and its DTOs.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface UserMapper {
+
+    @Mapping(target = "firstname", source = "firstName")
+    @Mapping(target = "lastname", source = "lastName")
+    GetSelfResponseDto toGetSelfResponse(User user);
+
+    @Mapping(target = "firstname", source = "firstName")
+    @Mapping(target = "lastname", source = "lastName")
+    UpdateUserResponseDto toUpdateUserResponse(User user);
+}
@@ -6,8 +6,15 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.UuidGenerator;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -19,10 +26,13 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts")
 @Table(
         name = "contacts",
         indexes = {
-                @Index(name = "idx_firstname_lastname", columnList = "firstName, lastName")
+                @Index(name = "idx_firstname_lastname", columnList = "firstName, lastName"),
+                @Index(name = "idx_contacts_user_keyset", columnList = "user_id, firstName, lastName, id"),
+                @Index(name = "idx_contacts_user_change", columnList = "user_id, changeVersion, id")
         }
 )
 public class Contact {
@@ -31,6 +41,10 @@ public class Contact {
     @Column(updatable = false, nullable = false)
     private UUID id;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -42,19 +56,32 @@ public class Contact {
 
     private String title;
 
+    /**
+     * The owner's {@link User#getContactsVersion() contactsVersion} as of this contact's last change; the delta-sync
+     * watermark.
+     */
+    @Column(nullable = false)
+    private long changeVersion;
+
+    private LocalDateTime updatedAt;
+
     @OneToMany(
             fetch = FetchType.LAZY,
             mappedBy = "contact",
-            cascade = CascadeType.ALL,
-            orphanRemoval = true
+            cascade = {CascadeType.PERSIST, CascadeType.MERGE}
     )
+    @Fetch(FetchMode.SUBSELECT)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts_emails")
     private List<ContactEmail> emails = new ArrayList<>();
 
     @OneToMany(
             fetch = FetchType.LAZY,
             mappedBy = "contact",
-            cascade = CascadeType.ALL,
-            orphanRemoval = true
+            cascade = {CascadeType.PERSIST, CascadeType.MERGE}
     )
+    @Fetch(FetchMode.SUBSELECT)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contacts_phones")
     private List<ContactPhone> phones = new ArrayList<>();
 }
@@ -7,6 +7,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.util.UUID;
@@ -17,11 +19,13 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contact_email")
 @Table(
         name = "contact_email",
         indexes = {
                 @Index(name = "idx_email_type", columnList = "email_type"),
-                @Index(name = "idx_email_value", columnList = "email_value")
+                @Index(name = "idx_email_value", columnList = "email_value"),
+                @Index(name = "idx_email_contact", columnList = "contact_id")
         }
 )
 public class ContactEmail {
@@ -7,6 +7,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.util.UUID;
@@ -17,11 +19,13 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "contact_phone")
 @Table(
         name = "contact_phone",
         indexes = {
                 @Index(name = "idx_phone_type", columnList = "phone_type"),
-                @Index(name = "idx_phone_value", columnList = "phone_value")
+                @Index(name = "idx_phone_value", columnList = "phone_value"),
+                @Index(name = "idx_phone_contact", columnList = "contact_id")
         }
 )
 public class ContactPhone {
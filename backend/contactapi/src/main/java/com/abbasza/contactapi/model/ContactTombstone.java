@@ -0,0 +1,57 @@
+package com.abbasza.contactapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Marker left behind by a deleted contact, so clients syncing from an earlier watermark learn about the deletion.
+ * Kept for {@code contact.changes.token-ttl}, the lifetime of a sync token. Tombstones are only ever inserted, so
+ * {@link #isNew()} is always true and saving one skips the existence check an assigned id would otherwise cost.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+        name = "contact_tombstone",
+        indexes = {
+                @Index(name = "idx_contact_tombstone_user_change", columnList = "user_id, changeVersion, contactId"),
+                @Index(name = "idx_contact_tombstone_deleted_at", columnList = "deletedAt")
+        }
+)
+public class ContactTombstone implements Persistable<UUID> {
+    @Id
+    @Column(updatable = false, nullable = false)
+    private UUID contactId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(nullable = false, updatable = false)
+    private long changeVersion;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    @Override
+    public UUID getId() {
+        return contactId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package com.abbasza.contactapi.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(
+        name = "refresh_token",
+        indexes = {
+                @Index(name = "idx_refresh_token_hash", columnList = "tokenHash", unique = true),
+                @Index(name = "idx_refresh_token_family", columnList = "familyId"),
+                @Index(name = "idx_refresh_token_user", columnList = "user_id")
+        }
+)
+public class RefreshToken {
+    @Id
+    @UuidGenerator
+    @Column(updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(nullable = false, updatable = false)
+    private UUID familyId;
+
+    @Column(nullable = false, updatable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdTime;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime usedAt;
+
+    private boolean revoked;
+}
@@ -0,0 +1,8 @@
+package com.abbasza.contactapi.model.type;
+
+public enum ImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
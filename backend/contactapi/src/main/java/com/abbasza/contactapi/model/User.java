@@ -49,6 +49,19 @@ public class User implements UserDetails {
 
     private LocalDateTime createdTime;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Changes whenever one of the user's contacts is created, edited or deleted, and stamps the changed contacts'
+     * {@link Contact#getChangeVersion() changeVersion}. Only ever bumped by
+     * {@link com.abbasza.contactapi.repository.UserRepo#incrementContactsVersion}, never written from the entity,
+     * so a profile update cannot overwrite a concurrent bump.
+     */
+    @Column(nullable = false, updatable = false)
+    private long contactsVersion;
+
     @OneToMany(
             fetch = FetchType.LAZY,
             mappedBy = "user",
@@ -0,0 +1,23 @@
+package com.abbasza.contactapi.repository;
+
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.User;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Insert-only write path for imports and the seeder, selected with {@code contact.import.writer}.
+ * Bypasses the persistence context: users, contacts, emails and phones must already carry their ids, and the
+ * rows are written in the caller's transaction.
+ */
+public interface ContactBulkWriter {
+
+    void insert(UUID userId, List<Contact> contacts);
+
+    /**
+     * Writes users with their version and {@code contactsVersion} as given; only {@link com.abbasza.contactapi.service.DataSeeder}
+     * creates users this way.
+     */
+    void insertUsers(List<User> users);
+}
@@ -0,0 +1,73 @@
+package com.abbasza.contactapi.repository;
+
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.ContactEmail;
+import com.abbasza.contactapi.model.ContactPhone;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Second-level cache housekeeping that Hibernate cannot infer on its own (all no-ops unless the l2cache profile is on).
+ * <p>
+ * Contact updates write child rows through {@link ContactEmailRepo}/{@link ContactPhoneRepo} rather than the inverse
+ * {@code Contact.emails}/{@code Contact.phones} collections, and deleting a contact or a user removes the child rows
+ * through the database's {@code ON DELETE CASCADE}; the affected entries are evicted both immediately and once the
+ * transaction completes, so a reader that loaded the old rows in between cannot leave them cached. Emails and phones
+ * removed by an update go with a bulk delete, and their ids are evicted the same way. Imports only insert new ids and
+ * need no eviction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ContactCache {
+    private static final String EMAILS_ROLE = Contact.class.getName() + ".emails";
+    private static final String PHONES_ROLE = Contact.class.getName() + ".phones";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public boolean contains(UUID contactId) {
+        return entityManagerFactory.getCache().contains(Contact.class, contactId);
+    }
+
+    public void evict(UUID contactId) {
+        runNowAndAfterCompletion(cache -> {
+            cache.evictEntityData(Contact.class, contactId);
+            cache.evictCollectionData(EMAILS_ROLE, contactId);
+            cache.evictCollectionData(PHONES_ROLE, contactId);
+        });
+    }
+
+    public void evictEntities(Class<?> entityClass, Collection<UUID> ids) {
+        runNowAndAfterCompletion(cache -> ids.forEach(id -> cache.evictEntityData(entityClass, id)));
+    }
+
+    public void evictAll() {
+        runNowAndAfterCompletion(cache -> {
+            cache.evictEntityData(Contact.class);
+            cache.evictEntityData(ContactEmail.class);
+            cache.evictEntityData(ContactPhone.class);
+            cache.evictCollectionData(EMAILS_ROLE);
+            cache.evictCollectionData(PHONES_ROLE);
+        });
+    }
+
+    private void runNowAndAfterCompletion(Consumer<Cache> eviction) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        eviction.accept(cache);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.accept(cache);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.abbasza.contactapi.repository;
+
+import java.util.UUID;
+
+/**
+ * One entry of the change feed: a contact, or the tombstone of a deleted one, with the version it changed at.
+ */
+public interface ContactChange {
+    UUID getId();
+
+    long getChangeVersion();
+}
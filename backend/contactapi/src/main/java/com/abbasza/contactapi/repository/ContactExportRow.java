@@ -0,0 +1,25 @@
+package com.abbasza.contactapi.repository;
+
+import java.util.UUID;
+
+/**
+ * One row of the export stream: a contact's columns plus at most one of its emails ({@code E}) or phones ({@code P}).
+ * Contacts without children appear once with a null {@code itemkind}.
+ */
+public interface ContactExportRow {
+    UUID getId();
+
+    Long getVersion();
+
+    String getTitle();
+
+    String getFirstname();
+
+    String getLastname();
+
+    String getItemkind();
+
+    String getItemtype();
+
+    String getItemvalue();
+}
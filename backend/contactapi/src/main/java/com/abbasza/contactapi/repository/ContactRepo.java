@@ -1,15 +1,24 @@
 package com.abbasza.contactapi.repository;
 
+import com.abbasza.contactapi.dto.ContactResponseDto;
 import com.abbasza.contactapi.model.Contact;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ContactRepo extends JpaRepository<Contact, UUID> {
@@ -17,6 +26,93 @@ public interface ContactRepo extends JpaRepository<Contact, UUID> {
 
     Optional<Contact> findContactByIdAndUserId(UUID id, UUID userId);
 
-    @Query("SELECT c FROM Contact c INNER JOIN User u ON c.user.id = u.id WHERE (u.id = ?1) AND (LOWER(c.firstName) LIKE %?2% OR LOWER(c.lastName) LIKE %?2%) ORDER BY c.firstName LIMIT 10")
-    List<Contact> findContactByFirstNameOrLastName(UUID userId, String query);
+    /**
+     * Contact with its emails joined in; phones follow in one subselect when first accessed.
+     */
+    @EntityGraph(attributePaths = "emails")
+    Optional<Contact> findContactDetailByIdAndUserId(UUID id, UUID userId);
+
+    List<Contact> findContactsByIdInAndUserId(Collection<UUID> ids, UUID userId);
+
+    /**
+     * Bulk delete that leaves emails and phones to the foreign keys' {@code ON DELETE CASCADE}; bypasses the
+     * persistence context and records no tombstones.
+     */
+    @Modifying
+    @Query("DELETE FROM Contact c WHERE c.user.id = ?1")
+    int deleteContactsByUserId(UUID userId);
+
+    @Query("SELECT c.version FROM Contact c WHERE c.id = ?1 AND c.user.id = ?2")
+    Optional<Long> findVersionByIdAndUserId(UUID id, UUID userId);
+
+    @Query("SELECT c.id AS id, c.changeVersion AS changeVersion FROM Contact c WHERE c.user.id = ?1 AND c.changeVersion <= ?2 ORDER BY c.changeVersion, c.id")
+    List<ContactChange> findChangesUpTo(UUID userId, long upTo, Pageable limit);
+
+    @Query("SELECT c.id AS id, c.changeVersion AS changeVersion FROM Contact c WHERE c.user.id = ?1 AND c.changeVersion > ?2 AND c.changeVersion <= ?3 ORDER BY c.changeVersion, c.id")
+    List<ContactChange> findChangesSince(UUID userId, long since, long upTo, Pageable limit);
+
+    @Query("SELECT c.id AS id, c.changeVersion AS changeVersion FROM Contact c WHERE c.user.id = ?1 AND c.changeVersion >= ?2 AND (c.changeVersion > ?2 OR c.id > ?3) AND c.changeVersion <= ?4 ORDER BY c.changeVersion, c.id")
+    List<ContactChange> findChangesAfter(UUID userId, long version, UUID id, long upTo, Pageable limit);
+
+    @Query(value = "SELECT new com.abbasza.contactapi.dto.ContactResponseDto(c.id, c.title, c.firstName, c.lastName) FROM Contact c WHERE c.user.id = ?1",
+            countQuery = "SELECT count(c) FROM Contact c WHERE c.user.id = ?1")
+    Page<ContactResponseDto> findContactSummariesByUserId(UUID userId, Pageable pageable);
+
+    @Query("SELECT new com.abbasza.contactapi.dto.ContactResponseDto(c.id, c.title, c.firstName, c.lastName) FROM Contact c WHERE c.user.id = ?1 ORDER BY c.firstName, c.lastName NULLS LAST, c.id")
+    List<ContactResponseDto> findFirstContactSummariesByUserId(UUID userId, Pageable limit);
+
+    @Query("SELECT new com.abbasza.contactapi.dto.ContactResponseDto(c.id, c.title, c.firstName, c.lastName) FROM Contact c WHERE c.user.id = ?1 AND c.firstName >= ?2 AND (c.firstName > ?2 OR c.lastName > ?3 OR c.lastName IS NULL OR (c.lastName = ?3 AND c.id > ?4)) ORDER BY c.firstName, c.lastName NULLS LAST, c.id")
+    List<ContactResponseDto> findContactSummariesByUserIdAfter(UUID userId, String firstName, String lastName, UUID id, Pageable limit);
+
+    @Query("SELECT new com.abbasza.contactapi.dto.ContactResponseDto(c.id, c.title, c.firstName, c.lastName) FROM Contact c WHERE c.user.id = ?1 AND c.firstName >= ?2 AND (c.firstName > ?2 OR (c.lastName IS NULL AND c.id > ?3)) ORDER BY c.firstName, c.lastName NULLS LAST, c.id")
+    List<ContactResponseDto> findContactSummariesByUserIdAfterNullLastName(UUID userId, String firstName, UUID id, Pageable limit);
+
+    @Query("SELECT new com.abbasza.contactapi.dto.ContactResponseDto(c.id, c.title, c.firstName, c.lastName) FROM Contact c WHERE c.user.id = ?1")
+    List<ContactResponseDto> findContactSummariesByUserId(UUID userId);
+
+    /**
+     * Forward-only stream of a user's contacts with their emails and phones, ordered like the keyset listing.
+     * Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT c.id AS id, c.version AS version, c.title AS title, c.firstName AS firstname, c.lastName AS lastname,
+                   x.kind AS itemkind, x.itemType AS itemtype, x.itemValue AS itemvalue
+            FROM Contact c
+            LEFT JOIN (
+                SELECT e.contact.id AS contactId, 'E' AS kind, str(e.emailType) AS itemType, e.emailValue AS itemValue
+                FROM ContactEmail e
+                UNION ALL
+                SELECT p.contact.id AS contactId, 'P' AS kind, str(p.phoneType) AS itemType, p.phoneValue AS itemValue
+                FROM ContactPhone p
+            ) x ON x.contactId = c.id
+            WHERE c.user.id = :userId
+            ORDER BY c.firstName, c.lastName NULLS LAST, c.id
+            """)
+    Stream<ContactExportRow> streamContactExportRows(@Param("userId") UUID userId);
+
+    @Query(value = """
+            WITH q AS (SELECT to_tsquery('simple', :tsQuery) AS ts, CAST(:pattern AS text) AS pattern, CAST(:term AS text) AS term),
+            hits AS (
+                SELECT c.id FROM contacts c, q WHERE c.user_id = :userId AND c.search_vector @@ q.ts
+                UNION
+                SELECT c.id FROM contacts c, q WHERE c.user_id = :userId AND (lower(c.first_name) LIKE q.pattern OR lower(c.last_name) LIKE q.pattern)
+                UNION
+                SELECT e.contact_id FROM contact_email e JOIN contacts c ON c.id = e.contact_id AND c.user_id = :userId, q WHERE lower(e.email_value) LIKE q.pattern
+                UNION
+                SELECT p.contact_id FROM contact_phone p JOIN contacts c ON c.id = p.contact_id AND c.user_id = :userId, q WHERE p.phone_value LIKE q.pattern
+            )
+            SELECT c.id, c.title, c.first_name AS firstname, c.last_name AS lastname FROM contacts c JOIN hits h ON h.id = c.id, q
+            WHERE c.user_id = :userId
+            ORDER BY ts_rank(c.search_vector
+                        || coalesce((SELECT setweight(to_tsvector('simple', string_agg(e.email_value, ' ')), 'C') FROM contact_email e WHERE e.contact_id = c.id), CAST('' AS tsvector))
+                        || coalesce((SELECT setweight(to_tsvector('simple', string_agg(p.phone_value, ' ')), 'D') FROM contact_phone p WHERE p.contact_id = c.id), CAST('' AS tsvector)),
+                        q.ts)
+                     + similarity(lower(c.first_name || ' ' || coalesce(c.last_name, '')), q.term) DESC,
+                     c.first_name, c.last_name, c.id
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<ContactResponseDto> searchContactsRanked(@Param("userId") UUID userId, @Param("tsQuery") String tsQuery,
+                                                  @Param("pattern") String pattern, @Param("term") String term,
+                                                  @Param("limit") int limit, @Param("offset") long offset);
 }
@@ -0,0 +1,26 @@
+package com.abbasza.contactapi.repository;
+
+import com.abbasza.contactapi.model.ContactTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ContactTombstoneRepo extends JpaRepository<ContactTombstone, UUID> {
+
+    @Query("SELECT t.contactId AS id, t.changeVersion AS changeVersion FROM ContactTombstone t WHERE t.user.id = ?1 AND t.changeVersion > ?2 AND t.changeVersion <= ?3 ORDER BY t.changeVersion, t.contactId")
+    List<ContactChange> findChangesSince(UUID userId, long since, long upTo, Pageable limit);
+
+    @Query("SELECT t.contactId AS id, t.changeVersion AS changeVersion FROM ContactTombstone t WHERE t.user.id = ?1 AND t.changeVersion >= ?2 AND (t.changeVersion > ?2 OR t.contactId > ?3) AND t.changeVersion <= ?4 ORDER BY t.changeVersion, t.contactId")
+    List<ContactChange> findChangesAfter(UUID userId, long version, UUID id, long upTo, Pageable limit);
+
+    @Modifying
+    @Query("DELETE FROM ContactTombstone t WHERE t.deletedAt < ?1")
+    int deleteExpired(LocalDateTime cutoff);
+}
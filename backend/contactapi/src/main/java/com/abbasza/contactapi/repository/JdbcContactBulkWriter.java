@@ -0,0 +1,78 @@
+package com.abbasza.contactapi.repository;
+
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.ContactEmail;
+import com.abbasza.contactapi.model.ContactPhone;
+import com.abbasza.contactapi.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Portable {@link ContactBulkWriter} using one JDBC batch per table (H2 in the dev profile).
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "contact.import.writer", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcContactBulkWriter implements ContactBulkWriter {
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insert(UUID userId, List<Contact> contacts) {
+        List<ContactEmail> emails = new ArrayList<>();
+        List<ContactPhone> phones = new ArrayList<>();
+        for (Contact contact : contacts) {
+            emails.addAll(contact.getEmails());
+            phones.addAll(contact.getPhones());
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO contacts (id, version, user_id, first_name, last_name, title, change_version, updated_at) "
+                        + "VALUES (?, 0, ?, ?, ?, ?, ?, ?)",
+                contacts, BATCH_SIZE, (ps, contact) -> {
+                    ps.setObject(1, contact.getId());
+                    ps.setObject(2, userId);
+                    ps.setString(3, contact.getFirstName());
+                    ps.setString(4, contact.getLastName());
+                    ps.setString(5, contact.getTitle());
+                    ps.setLong(6, contact.getChangeVersion());
+                    ps.setObject(7, contact.getUpdatedAt());
+                });
+        jdbcTemplate.batchUpdate("INSERT INTO contact_email (id, contact_id, email_type, email_value) VALUES (?, ?, ?, ?)",
+                emails, BATCH_SIZE, (ps, email) -> {
+                    ps.setObject(1, email.getId());
+                    ps.setObject(2, email.getContact().getId());
+                    ps.setString(3, email.getEmailType().name());
+                    ps.setString(4, email.getEmailValue());
+                });
+        jdbcTemplate.batchUpdate("INSERT INTO contact_phone (id, contact_id, phone_type, phone_value) VALUES (?, ?, ?, ?)",
+                phones, BATCH_SIZE, (ps, phone) -> {
+                    ps.setObject(1, phone.getId());
+                    ps.setObject(2, phone.getContact().getId());
+                    ps.setString(3, phone.getPhoneType().name());
+                    ps.setString(4, phone.getPhoneValue());
+                });
+    }
+
+    @Override
+    public void insertUsers(List<User> users) {
+        jdbcTemplate.batchUpdate("INSERT INTO app_user (id, version, contacts_version, email, phone, password, first_name, last_name, created_time) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                users, BATCH_SIZE, (ps, user) -> {
+                    ps.setObject(1, user.getId());
+                    ps.setLong(2, user.getVersion());
+                    ps.setLong(3, user.getContactsVersion());
+                    ps.setString(4, user.getEmail());
+                    ps.setString(5, user.getPhone());
+                    ps.setString(6, user.getPassword());
+                    ps.setString(7, user.getFirstName());
+                    ps.setString(8, user.getLastName());
+                    ps.setObject(9, user.getCreatedTime());
+                });
+    }
+}
@@ -0,0 +1,101 @@
+package com.abbasza.contactapi.repository;
+
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.ContactEmail;
+import com.abbasza.contactapi.model.ContactPhone;
+import com.abbasza.contactapi.model.User;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link ContactBulkWriter} streaming each table through {@code COPY ... FROM STDIN}, one statement per table
+ * per chunk instead of one insert per row.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "contact.import.writer", havingValue = "copy")
+public class PostgresCopyContactBulkWriter implements ContactBulkWriter {
+    private static final String COPY_CONTACTS = "COPY contacts (id, version, user_id, first_name, last_name, title, change_version, updated_at) "
+            + "FROM STDIN (FORMAT csv)";
+    private static final String COPY_EMAILS = "COPY contact_email (id, contact_id, email_type, email_value) FROM STDIN (FORMAT csv)";
+    private static final String COPY_PHONES = "COPY contact_phone (id, contact_id, phone_type, phone_value) FROM STDIN (FORMAT csv)";
+    private static final String COPY_USERS = "COPY app_user (id, version, contacts_version, email, phone, password, first_name, last_name, created_time) "
+            + "FROM STDIN (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insert(UUID userId, List<Contact> contacts) {
+        StringBuilder contactRows = new StringBuilder(contacts.size() * 96);
+        StringBuilder emailRows = new StringBuilder();
+        StringBuilder phoneRows = new StringBuilder();
+        for (Contact contact : contacts) {
+            row(contactRows, contact.getId(), 0, userId, contact.getFirstName(), contact.getLastName(), contact.getTitle(),
+                    contact.getChangeVersion(), contact.getUpdatedAt());
+            for (ContactEmail email : contact.getEmails()) {
+                row(emailRows, email.getId(), contact.getId(), email.getEmailType(), email.getEmailValue());
+            }
+            for (ContactPhone phone : contact.getPhones()) {
+                row(phoneRows, phone.getId(), contact.getId(), phone.getPhoneType(), phone.getPhoneValue());
+            }
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            copyIn(copyManager, COPY_CONTACTS, contactRows);
+            copyIn(copyManager, COPY_EMAILS, emailRows);
+            copyIn(copyManager, COPY_PHONES, phoneRows);
+            return null;
+        });
+    }
+
+    @Override
+    public void insertUsers(List<User> users) {
+        StringBuilder userRows = new StringBuilder(users.size() * 160);
+        for (User user : users) {
+            row(userRows, user.getId(), user.getVersion(), user.getContactsVersion(), user.getEmail(), user.getPhone(),
+                    user.getPassword(), user.getFirstName(), user.getLastName(), user.getCreatedTime());
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            copyIn(connection.unwrap(PGConnection.class).getCopyAPI(), COPY_USERS, userRows);
+            return null;
+        });
+    }
+
+    private static void copyIn(CopyManager copyManager, String sql, StringBuilder rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            copyManager.copyIn(sql, new StringReader(rows.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends one CSV row; nulls stay unquoted (read back as NULL), everything else is quoted.
+     */
+    private static void row(StringBuilder rows, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                rows.append(',');
+            }
+            if (values[i] != null) {
+                rows.append('"').append(values[i].toString().replace("\"", "\"\"")).append('"');
+            }
+        }
+        rows.append('\n');
+    }
+}
@@ -0,0 +1,37 @@
+package com.abbasza.contactapi.repository;
+
+import com.abbasza.contactapi.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepo extends JpaRepository<RefreshToken, UUID> {
+
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.tokenHash = ?1")
+    Optional<RefreshToken> findRefreshTokenByTokenHash(String tokenHash);
+
+    /**
+     * Marks the token used if nobody else has; returns 0 when it was already used or revoked.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = ?2 WHERE t.id = ?1 AND t.usedAt IS NULL AND t.revoked = false")
+    int markUsed(UUID id, LocalDateTime usedAt);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.familyId = ?1")
+    int revokeFamily(UUID familyId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.user.id = ?1")
+    int revokeByUserId(UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.user.id = ?1 AND t.expiresAt < ?2")
+    int deleteExpiredByUserId(UUID userId, LocalDateTime now);
+}
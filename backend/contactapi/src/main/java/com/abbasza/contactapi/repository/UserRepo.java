@@ -2,9 +2,13 @@ package com.abbasza.contactapi.repository;
 
 import com.abbasza.contactapi.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -14,4 +18,17 @@ public interface UserRepo extends JpaRepository<User, UUID> {
     Optional<User> findUserByPhone(String phone);
 
     boolean existsUserByEmail(String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN ?1")
+    Set<String> findEmailsByEmailIn(Collection<String> emails);
+
+    @Query("SELECT u.version FROM User u WHERE u.id = ?1")
+    Optional<Long> findVersionById(UUID id);
+
+    @Query("SELECT u.contactsVersion FROM User u WHERE u.id = ?1")
+    Optional<Long> findContactsVersionById(UUID id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.contactsVersion = u.contactsVersion + 1 WHERE u.id = ?1")
+    int incrementContactsVersion(UUID id);
 }
@@ -2,6 +2,7 @@ package com.abbasza.contactapi.security;
 
 import com.abbasza.contactapi.dto.LoginRequestDto;
 import com.abbasza.contactapi.dto.LoginResponseDto;
+import com.abbasza.contactapi.dto.RefreshRequestDto;
 import com.abbasza.contactapi.dto.SignupRequestDto;
 import com.abbasza.contactapi.dto.SignupResponseDto;
 import com.abbasza.contactapi.model.User;
@@ -25,6 +26,7 @@ public class AuthService {
     private final AuthUtil authUtil;
     private final UserRepo userRepo;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
 
     public LoginResponseDto login(LoginRequestDto loginRequestDto) {
         log.info("Logging In USER: {}", loginRequestDto.getUsername());
@@ -34,8 +36,13 @@ public class AuthService {
         User user = (User) authentication.getPrincipal();
 
         String token = authUtil.generateAcessToken(user);
+        String refreshToken = refreshTokenService.issue(user);
 
-        return new LoginResponseDto(user.getId(), token);
+        return new LoginResponseDto(user.getId(), token, refreshToken);
+    }
+
+    public LoginResponseDto refresh(RefreshRequestDto refreshRequestDto) {
+        return refreshTokenService.refresh(refreshRequestDto.getRefreshToken());
     }
 
     public SignupResponseDto signup(SignupRequestDto signupRequestDto) {
@@ -1,7 +1,6 @@
 package com.abbasza.contactapi.security;
 
-import com.abbasza.contactapi.model.User;
-import com.abbasza.contactapi.repository.UserRepo;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,20 +9,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
-import java.util.Optional;
+import java.util.UUID;
 
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final AuthUtil authUtil;
-    private final UserRepo userRepo;
+    private final PrincipalCache principalCache;
     private final HandlerExceptionResolver handlerExceptionResolver;
 
     @Override
@@ -38,20 +36,15 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             }
 
             String token = requestTokenHeader.split("Bearer ")[1];
-            String username = authUtil.getUsernameFromToken(token);
+            Claims claims = authUtil.getClaimsFromToken(token);
+            String username = claims.getSubject();
+            String userId = claims.get("userId", String.class);
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                Optional<User> optionalUser = userRepo.findUserByEmail(username);
-                if (optionalUser.isEmpty()) {
-                    optionalUser = userRepo.findUserByPhone(username);
-                }
-                User user = optionalUser.orElseThrow(() -> {
-                    log.error("USER: {} not found", username);
-                    return new UsernameNotFoundException("Username not found " + username);
-                });
+            if (username != null && userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserPrincipal principal = principalCache.getPrincipal(UUID.fromString(userId), username);
                 log.info("user found!");
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken
-                        = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                        = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
             }
             filterChain.doFilter(request, response);
@@ -0,0 +1,143 @@
+package com.abbasza.contactapi.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt {@link PasswordEncoder} that hashes on a dedicated, bounded worker pool.
+ * <p>
+ * At most {@code security.password.pool-size} hashes run at once and at most
+ * {@code security.password.queue-capacity} wait; anything beyond that fails fast with a
+ * {@link RejectedExecutionException} (mapped to 503) instead of piling up on request threads.
+ * The cost factor is the highest one whose measured hash time fits {@code security.password.hash-budget},
+ * never below {@code security.password.min-strength}; {@link #upgradeEncoding(String)} reports weaker
+ * hashes so they are rehashed on the next successful login. Hash time, excluding the wait for a worker, is
+ * published as the {@code password.hash} timer, tagged by operation.
+ */
+@Component
+@Slf4j
+public class PasswordHashingService implements PasswordEncoder, DisposableBean {
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    @Autowired
+    public PasswordHashingService(MeterRegistry meterRegistry,
+                                  @Value("${security.password.strength:0}") int strength,
+                                  @Value("${security.password.min-strength:10}") int minStrength,
+                                  @Value("${security.password.max-strength:14}") int maxStrength,
+                                  @Value("${security.password.hash-budget:250ms}") Duration hashBudget,
+                                  @Value("${security.password.pool-size:0}") int poolSize,
+                                  @Value("${security.password.queue-capacity:64}") int queueCapacity) {
+        this(new BCryptPasswordEncoder(strength > 0 ? strength : calibrate(hashBudget, minStrength, maxStrength)),
+                newExecutor(poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors(), queueCapacity),
+                meterRegistry);
+        if (strength > 0) {
+            log.info("Using configured BCrypt strength {}", strength);
+        }
+        log.info("Password hashing on {} threads, queue capacity {}", executor.getMaximumPoolSize(), queueCapacity);
+    }
+
+    PasswordHashingService(BCryptPasswordEncoder delegate, ThreadPoolExecutor executor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Picks the highest strength in {@code [minStrength, maxStrength]} whose hash time stays within the budget.
+     * Each strength step doubles the work, so the next step is extrapolated rather than run.
+     */
+    static int calibrate(Duration hashBudget, int minStrength, int maxStrength) {
+        new BCryptPasswordEncoder(4).encode("warm-up");
+        int strength = minStrength;
+        long elapsed = timeHash(strength);
+        while (strength < maxStrength && elapsed * 2 <= hashBudget.toNanos()) {
+            strength++;
+            elapsed = timeHash(strength);
+        }
+        log.info("Calibrated BCrypt strength {} ({} ms per hash, budget {} ms)",
+                strength, elapsed / 1_000_000, hashBudget.toMillis());
+        return strength;
+    }
+
+    private static long timeHash(int strength) {
+        long start = System.nanoTime();
+        new BCryptPasswordEncoder(strength).encode("calibration");
+        return System.nanoTime() - start;
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.hash")
+                .description("BCrypt hash time on the password worker pool")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static ThreadPoolExecutor newExecutor(int poolSize, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                task -> {
+                    Thread thread = new Thread(task, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.error("Password hashing queue full, rejecting request");
+            throw new RejectedExecutionException("Password hashing capacity exhausted, retry shortly", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.abbasza.contactapi.security;
+
+import com.abbasza.contactapi.repository.UserRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, expiring cache of authenticated principals keyed by the {@code userId} JWT claim.
+ * <p>
+ * Saves {@link JwtAuthFilter} a user lookup on every request. Entries expire after
+ * {@code jwt.principal-cache.ttl} and are invalidated explicitly when a user is updated, changes
+ * their password or is deleted. Hit, miss and eviction counts are published as {@code cache.*}
+ * metrics under {@code cache=principals}.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+    private final UserRepo userRepo;
+    private final Cache<UUID, UserPrincipal> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PrincipalCache(UserRepo userRepo,
+                          MeterRegistry meterRegistry,
+                          @Value("${jwt.principal-cache.ttl:5m}") Duration ttl,
+                          @Value("${jwt.principal-cache.max-size:10000}") long maxSize) {
+        this.userRepo = userRepo;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    /**
+     * Returns the principal for the given user id, provided their current username still matches the token subject.
+     * <p>
+     * The user is loaded outside the cache's compute lock: a JDBC call inside {@code ConcurrentHashMap.compute}
+     * would pin the carrier thread when requests run on virtual threads. An invalidation that lands while the user
+     * is being loaded may have been applied before the load could see the change, so the loaded principal is only
+     * kept if no invalidation happened in the meantime.
+     */
+    public UserPrincipal getPrincipal(UUID userId, String username) {
+        UserPrincipal principal = cache.getIfPresent(userId);
+        if (principal == null) {
+            long stamp = invalidations.get();
+            principal = userRepo.findById(userId)
+                    .map(user -> new UserPrincipal(user.getId(), user.getUsername()))
+                    .orElse(null);
+            if (principal != null && invalidations.get() == stamp) {
+                cache.put(userId, principal);
+                // an invalidation between the check and the put would otherwise be lost
+                if (invalidations.get() != stamp) {
+                    cache.asMap().remove(userId, principal);
+                }
+            }
+        }
+        if (principal == null || !username.equals(principal.getUsername())) {
+            log.error("USER: {} not found", username);
+            throw new UsernameNotFoundException("Username not found " + username);
+        }
+        return principal;
+    }
+
+    /**
+     * Drops the cached user once the surrounding transaction commits, so the next request reloads it.
+     */
+    public void invalidate(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    private void evict(UUID userId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(userId);
+    }
+}
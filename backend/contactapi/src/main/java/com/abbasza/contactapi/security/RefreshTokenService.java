@@ -0,0 +1,103 @@
+package com.abbasza.contactapi.security;
+
+import com.abbasza.contactapi.dto.LoginResponseDto;
+import com.abbasza.contactapi.model.RefreshToken;
+import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.repository.RefreshTokenRepo;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens.
+ * <p>
+ * Only the SHA-256 of a token is stored, so lookups are a single indexed read and never involve the
+ * password encoder. Every refresh consumes the presented token and issues its successor in the same
+ * family; presenting a consumed or revoked token again revokes the whole family.
+ */
+@Service
+@Transactional(dontRollbackOn = AuthenticationException.class)
+@Slf4j
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepo refreshTokenRepo;
+    private final AuthUtil authUtil;
+    private final Duration ttl;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepo refreshTokenRepo,
+                               AuthUtil authUtil,
+                               @Value("${jwt.refresh-token.ttl:14d}") Duration ttl) {
+        this.refreshTokenRepo = refreshTokenRepo;
+        this.authUtil = authUtil;
+        this.ttl = ttl;
+    }
+
+    public String issue(User user) {
+        refreshTokenRepo.deleteExpiredByUserId(user.getId(), LocalDateTime.now());
+        return issue(user, UUID.randomUUID());
+    }
+
+    public LoginResponseDto refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            throw new BadCredentialsException("Refresh token missing");
+        }
+        RefreshToken stored = refreshTokenRepo.findRefreshTokenByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+        if (stored.getExpiresAt().isBefore(now)) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+        if (stored.isRevoked() || stored.getUsedAt() != null || refreshTokenRepo.markUsed(stored.getId(), now) == 0) {
+            log.error("Refresh token reuse detected, revoking family: {}", stored.getFamilyId());
+            refreshTokenRepo.revokeFamily(stored.getFamilyId());
+            throw new BadCredentialsException("Refresh token already used");
+        }
+
+        User user = stored.getUser();
+        log.info("Refreshing token for USER: {}", user.getId());
+        return new LoginResponseDto(user.getId(), authUtil.generateAcessToken(user), issue(user, stored.getFamilyId()));
+    }
+
+    public void revokeAll(UUID userId) {
+        refreshTokenRepo.revokeByUserId(userId);
+    }
+
+    private String issue(User user, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepo.save(RefreshToken.builder()
+                .user(user)
+                .familyId(familyId)
+                .tokenHash(hash(token))
+                .createdTime(now)
+                .expiresAt(now.plus(ttl))
+                .build());
+        return token;
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.abbasza.contactapi.security;
 import com.abbasza.contactapi.model.User;
 import com.abbasza.contactapi.repository.UserRepo;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -12,7 +14,8 @@ import java.util.Optional;
 
 @Service
 @AllArgsConstructor
-public class UserDetailsImplService implements UserDetailsService {
+@Slf4j
+public class UserDetailsImplService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepo userRepo;
 
     @Override
@@ -23,4 +26,15 @@ public class UserDetailsImplService implements UserDetailsService {
         }
         return user.orElseThrow(() -> new UsernameNotFoundException("User with " + username + " Not Found!"));
     }
+
+    /**
+     * Stores a hash re-encoded at the current cost factor after a successful login with an older one.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = (User) userDetails;
+        user.setPassword(newPassword);
+        log.info("Rehashed password for USER: {}", user.getUsername());
+        return userRepo.save(user);
+    }
 }
@@ -0,0 +1,31 @@
+package com.abbasza.contactapi.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Authenticated principal placed in the security context by {@link JwtAuthFilter}.
+ * Carries only the user's id and username so services can scope queries without loading the user.
+ */
+@Data
+@AllArgsConstructor
+public class UserPrincipal implements UserDetails {
+    private UUID id;
+    private String username;
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of();
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
@@ -1,12 +1,25 @@
 package com.abbasza.contactapi.security;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -18,7 +31,10 @@ import java.util.Arrays;
 
 @Configuration
 @RequiredArgsConstructor
+@Slf4j
 public class WebSecurityConfig {
+    private static final String ACTUATOR_ROLE = "ACTUATOR";
+
     private final JwtAuthFilter jwtAuthFilter;
 
     @Bean
@@ -31,7 +47,48 @@ public class WebSecurityConfig {
         return source;
     }
 
+    /**
+     * Actuator endpoints sit outside the JWT chain: health is public, everything else (metrics, the Prometheus scrape)
+     * takes HTTP Basic with the {@code security.actuator.*} credentials, so scrapers need no user account.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity httpSecurity,
+                                                           @Value("${security.actuator.username:prometheus}") String username,
+                                                           @Value("${security.actuator.password:}") String password) throws Exception {
+        httpSecurity
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(sessionConfig
+                        -> sessionConfig.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        if (password.isBlank()) {
+            log.warn("No security.actuator.password set, actuator endpoints other than health are closed");
+            httpSecurity.authorizeHttpRequests(auth -> auth
+                    .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                    .anyRequest().denyAll());
+        } else {
+            httpSecurity
+                    .authenticationManager(actuatorAuthenticationManager(username, password))
+                    .httpBasic(Customizer.withDefaults())
+                    .authorizeHttpRequests(auth -> auth
+                            .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                            .anyRequest().hasRole(ACTUATOR_ROLE));
+        }
+        return httpSecurity.build();
+    }
+
+    private static AuthenticationManager actuatorAuthenticationManager(String username, String password) {
+        PasswordEncoder passwordEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(new InMemoryUserDetailsManager(User.withUsername(username)
+                .password(passwordEncoder.encode(password))
+                .roles(ACTUATOR_ROLE)
+                .build()));
+        provider.setPasswordEncoder(passwordEncoder);
+        return new ProviderManager(provider);
+    }
+
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
         httpSecurity
                 .exceptionHandling(c -> c.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
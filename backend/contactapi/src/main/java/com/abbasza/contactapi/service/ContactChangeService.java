@@ -0,0 +1,166 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactChangesResponseDto;
+import com.abbasza.contactapi.dto.ContactDetailResponseDto;
+import com.abbasza.contactapi.error.BadRequestException;
+import com.abbasza.contactapi.mapper.ContactMapper;
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.ContactTombstone;
+import com.abbasza.contactapi.repository.ContactChange;
+import com.abbasza.contactapi.repository.ContactRepo;
+import com.abbasza.contactapi.repository.ContactTombstoneRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Delta sync: contacts created, updated or deleted since a {@link ContactChangeToken}.
+ * <p>
+ * Every contact write stamps the changed contacts (or, for deletions, a {@link ContactTombstone}) with the owner's
+ * freshly bumped {@code contactsVersion}. Writers hold the user row lock from that bump until commit, so versions are
+ * committed in order; each page is capped at the version current when it started, so a write still in flight can
+ * never be skipped. Pages are keyset-ordered by (changeVersion, id) on both tables. Tombstones and tokens share one
+ * lifetime ({@code contact.changes.token-ttl}); an older token cannot see every deletion and is refused, which
+ * tells the client to resync from scratch. Expired tombstones are purged every {@code contact.changes.purge-interval}.
+ */
+@Service
+@Slf4j
+public class ContactChangeService {
+    static final int MAX_PAGE_SIZE = 1000;
+    private static final Comparator<ContactChange> FEED_ORDER = Comparator
+            .comparingLong(ContactChange::getChangeVersion)
+            .thenComparing(ContactChange::getId, ContactChangeService::compareUuids);
+
+    private final ContactRepo contactRepo;
+    private final ContactTombstoneRepo contactTombstoneRepo;
+    private final UserService userService;
+    private final ContactMapper contactMapper;
+    private final Duration tokenTtl;
+
+    public ContactChangeService(ContactRepo contactRepo,
+                                ContactTombstoneRepo contactTombstoneRepo,
+                                UserService userService,
+                                ContactMapper contactMapper,
+                                @Value("${contact.changes.token-ttl:30d}") Duration tokenTtl) {
+        this.contactRepo = contactRepo;
+        this.contactTombstoneRepo = contactTombstoneRepo;
+        this.userService = userService;
+        this.contactMapper = contactMapper;
+        this.tokenTtl = tokenTtl;
+    }
+
+    /**
+     * One page of changes after {@code since}, or every live contact when {@code since} is empty.
+     *
+     * @return the page, or empty when the token has expired and the client must resync without one
+     */
+    @PreAuthorize("#userId == authentication.principal.id")
+    @Transactional(readOnly = true)
+    public Optional<ContactChangesResponseDto> getChanges(UUID userId, String since, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ContactChangeToken token = since == null || since.isEmpty() ? null : ContactChangeToken.decode(since);
+        Instant now = Instant.now();
+        if (token != null && token.isIssuedBefore(now.minus(tokenTtl))) {
+            log.info("USER: {} presented an expired sync token", userId);
+            return Optional.empty();
+        }
+
+        long upTo = userService.getContactsVersion(userId);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ContactChange> updates;
+        List<ContactChange> deletions;
+        if (token == null) {
+            updates = contactRepo.findChangesUpTo(userId, upTo, limit);
+            deletions = List.of();
+        } else if (token.getId() == null) {
+            updates = contactRepo.findChangesSince(userId, token.getChangeVersion(), upTo, limit);
+            deletions = contactTombstoneRepo.findChangesSince(userId, token.getChangeVersion(), upTo, limit);
+        } else {
+            updates = contactRepo.findChangesAfter(userId, token.getChangeVersion(), token.getId(), upTo, limit);
+            deletions = contactTombstoneRepo.findChangesAfter(userId, token.getChangeVersion(), token.getId(), upTo, limit);
+        }
+        List<ContactChange> changes = new ArrayList<>(updates.size() + deletions.size());
+        changes.addAll(updates);
+        changes.addAll(deletions);
+        changes.sort(FEED_ORDER);
+        boolean hasMore = changes.size() > size;
+        List<ContactChange> page = hasMore ? changes.subList(0, size) : changes;
+
+        Set<UUID> deletedIds = new HashSet<>();
+        for (ContactChange deletion : deletions) {
+            deletedIds.add(deletion.getId());
+        }
+        List<UUID> changedIds = new ArrayList<>(page.size());
+        List<UUID> deleted = new ArrayList<>();
+        for (ContactChange change : page) {
+            if (deletedIds.contains(change.getId())) {
+                deleted.add(change.getId());
+            } else {
+                changedIds.add(change.getId());
+            }
+        }
+        List<ContactDetailResponseDto> changed = new ArrayList<>(changedIds.size());
+        if (!changedIds.isEmpty()) {
+            Map<UUID, Contact> contacts = new HashMap<>();
+            for (Contact contact : contactRepo.findContactsByIdInAndUserId(new HashSet<>(changedIds), userId)) {
+                contacts.put(contact.getId(), contact);
+            }
+            for (UUID id : changedIds) {
+                // a contact deleted since the id query is reported by its tombstone on a later page
+                Contact contact = contacts.get(id);
+                if (contact != null) {
+                    changed.add(contactMapper.toContactDetailResponse(contact));
+                }
+            }
+        }
+
+        ContactChange last = hasMore ? page.get(size - 1) : null;
+        ContactChangeToken next = last != null
+                ? new ContactChangeToken(last.getChangeVersion(), last.getId(), now.getEpochSecond())
+                : new ContactChangeToken(upTo, null, now.getEpochSecond());
+        return Optional.of(new ContactChangesResponseDto(changed, deleted, next.encode(), hasMore));
+    }
+
+    /**
+     * Records a deleted contact for clients syncing from an earlier watermark.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void recordDeletion(UUID userId, UUID contactId, long changeVersion) {
+        contactTombstoneRepo.save(ContactTombstone.builder()
+                .contactId(contactId)
+                .user(userService.getUserReference(userId))
+                .changeVersion(changeVersion)
+                .deletedAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Drops the tombstones of every user that no valid token can reach any more.
+     */
+    @Scheduled(initialDelayString = "${contact.changes.purge-interval:1h}", fixedDelayString = "${contact.changes.purge-interval:1h}")
+    @Transactional(rollbackFor = Exception.class)
+    public void deleteExpiredTombstones() {
+        int purged = contactTombstoneRepo.deleteExpired(LocalDateTime.now().minus(tokenTtl));
+        log.info("Purged {} expired Contact tombstones", purged);
+    }
+
+    /**
+     * Unsigned byte order, as Postgres and H2 sort uuid columns ({@link UUID#compareTo} compares signed halves).
+     */
+    static int compareUuids(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,59 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.error.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.*;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque delta-sync watermark: every change up to {@code changeVersion} has been delivered, and for that version
+ * itself only ids up to {@code id} ({@code null} when the version was delivered in full). Carries its issue time so
+ * tokens older than the tombstone retention can be refused.
+ */
+@Data
+@AllArgsConstructor
+public class ContactChangeToken {
+    private static final byte VERSION = 1;
+
+    private long changeVersion;
+    private UUID id;
+    private long issuedAt;
+
+    public boolean isIssuedBefore(Instant time) {
+        return issuedAt < time.getEpochSecond();
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(changeVersion);
+            out.writeBoolean(id != null);
+            if (id != null) {
+                out.writeLong(id.getMostSignificantBits());
+                out.writeLong(id.getLeastSignificantBits());
+            }
+            out.writeLong(issuedAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static ContactChangeToken decode(String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported sync token version");
+            }
+            long changeVersion = in.readLong();
+            UUID id = in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+            return new ContactChangeToken(changeVersion, id, in.readLong());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid sync token " + token, e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactEmailDto;
+import com.abbasza.contactapi.dto.ContactPhoneDto;
+import com.abbasza.contactapi.dto.ContactRequestDto;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * RFC 4180 reader for the layout written by {@link ContactExportService}: a header row naming the columns
+ * ({@code firstname} is required; {@code title}, {@code lastname}, {@code emails}, {@code phones} are optional and
+ * unknown columns such as {@code id} are ignored), with emails and phones as {@code TYPE:value} pairs joined by {@code ;}.
+ */
+class ContactCsvImportReader implements ContactImportReader {
+    static final int MAX_RECORD_CHARS = 65536;
+
+    private final Reader reader;
+    private int pushedBack = -2;
+    private long line = 1;
+    private final int title;
+    private final int firstname;
+    private final int lastname;
+    private final int emails;
+    private final int phones;
+
+    ContactCsvImportReader(Reader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String column : header) {
+            columns.add(column.replaceAll("[^A-Za-z]", "").toLowerCase(Locale.ROOT));
+        }
+        title = columns.indexOf("title");
+        firstname = columns.indexOf("firstname");
+        lastname = columns.indexOf("lastname");
+        emails = columns.indexOf("emails");
+        phones = columns.indexOf("phones");
+        if (firstname < 0) {
+            throw new IllegalArgumentException("CSV header must contain a firstname column");
+        }
+    }
+
+    @Override
+    public ContactImportRecord next() throws IOException {
+        long start;
+        List<String> fields;
+        do {
+            start = line;
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        ContactRequestDto contact = new ContactRequestDto();
+        contact.setTitle(field(fields, title));
+        contact.setFirstname(field(fields, firstname));
+        contact.setLastname(field(fields, lastname));
+        try {
+            contact.setEmails(parseEmails(field(fields, emails)));
+            contact.setPhones(parsePhones(field(fields, phones)));
+        } catch (IllegalArgumentException e) {
+            return ContactImportRecord.error(start, e.getMessage());
+        }
+        return ContactImportRecord.of(start, contact);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index < 0 || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<ContactEmailDto> parseEmails(String value) {
+        List<ContactEmailDto> result = new ArrayList<>();
+        for (String[] pair : pairs(value, "emails")) {
+            ContactEmailDto email = new ContactEmailDto();
+            try {
+                email.setEmailtype(EmailType.valueOf(pair[0]));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown email type: " + pair[0]);
+            }
+            email.setEmailvalue(pair[1]);
+            result.add(email);
+        }
+        return result;
+    }
+
+    private static List<ContactPhoneDto> parsePhones(String value) {
+        List<ContactPhoneDto> result = new ArrayList<>();
+        for (String[] pair : pairs(value, "phones")) {
+            ContactPhoneDto phone = new ContactPhoneDto();
+            try {
+                phone.setPhonetype(PhoneType.valueOf(pair[0]));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown phone type: " + pair[0]);
+            }
+            phone.setPhonevalue(pair[1]);
+            result.add(phone);
+        }
+        return result;
+    }
+
+    private static List<String[]> pairs(String value, String column) {
+        List<String[]> result = new ArrayList<>();
+        if (value == null) {
+            return result;
+        }
+        for (String item : value.split(";")) {
+            if (item.isBlank()) {
+                continue;
+            }
+            int colon = item.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException(column + " entries must be TYPE:value, got: " + item.trim());
+            }
+            result.add(new String[]{item.substring(0, colon).trim().toUpperCase(Locale.ROOT), item.substring(colon + 1).trim()});
+        }
+        return result;
+    }
+
+    /**
+     * Reads one record, honouring quoted fields that contain separators, quotes or line breaks.
+     *
+     * @return the record's fields, or {@code null} at the end of the input
+     */
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        long start = line;
+        boolean quoted = false;
+        boolean inQuotes = false;
+        int length = 0;
+        while (true) {
+            if (++length > MAX_RECORD_CHARS) {
+                throw new IllegalArgumentException("Record at line " + start + " exceeds " + MAX_RECORD_CHARS + " characters");
+            }
+            if (inQuotes) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting at line " + start);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                quoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushedBack = next;
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && !quoted && field.isEmpty()) {
+                quoted = true;
+                inQuotes = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
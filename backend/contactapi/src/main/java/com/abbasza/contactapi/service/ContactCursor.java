@@ -0,0 +1,58 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactResponseDto;
+import com.abbasza.contactapi.error.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.*;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for keyset listing: the (firstName, lastName, id) of the last contact returned.
+ */
+@Data
+@AllArgsConstructor
+public class ContactCursor {
+    private static final byte VERSION = 1;
+
+    private String firstName;
+    private String lastName;
+    private UUID id;
+
+    public static ContactCursor of(ContactResponseDto contact) {
+        return new ContactCursor(contact.getFirstname(), contact.getLastname(), contact.getId());
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(firstName);
+            out.writeBoolean(lastName != null);
+            if (lastName != null) {
+                out.writeUTF(lastName);
+            }
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static ContactCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported cursor version");
+            }
+            String firstName = in.readUTF();
+            String lastName = in.readBoolean() ? in.readUTF() : null;
+            UUID id = new UUID(in.readLong(), in.readLong());
+            return new ContactCursor(firstName, lastName, id);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor " + token, e);
+        }
+    }
+}
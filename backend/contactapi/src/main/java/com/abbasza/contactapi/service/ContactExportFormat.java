@@ -0,0 +1,26 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.error.BadRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+@Getter
+@RequiredArgsConstructor
+public enum ContactExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv"),
+    VCF("text/vcard", "vcf");
+
+    private final String mediaType;
+    private final String extension;
+
+    public static ContactExportFormat from(String format) {
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactDetailResponseDto;
+import com.abbasza.contactapi.dto.ContactEmailDto;
+import com.abbasza.contactapi.dto.ContactPhoneDto;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+import com.abbasza.contactapi.repository.ContactExportRow;
+import com.abbasza.contactapi.repository.ContactRepo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's whole address book to an output stream as NDJSON, CSV or vCard 3.0.
+ * <p>
+ * Rows come from a forward-only projection stream (one row per email/phone, never managed entities), are grouped
+ * back into one contact at a time and written straight through a small buffer, so memory use does not grow with
+ * the size of the address book. CSV multi-values are written as {@code TYPE:value} pairs separated by {@code ;}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ContactExportService {
+    private static final int BUFFER_SIZE = 8192;
+    private static final String CSV_HEADER = "id,title,firstname,lastname,emails,phones";
+    private static final int VCARD_LINE_OCTETS = 75;
+
+    private final ContactRepo contactRepo;
+    private final ObjectMapper objectMapper;
+
+    @PreAuthorize("#userId == authentication.principal.id")
+    @Transactional(readOnly = true)
+    public long export(UUID userId, ContactExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        JsonGenerator json = null;
+        if (format == ContactExportFormat.NDJSON) {
+            json = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+        } else if (format == ContactExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+        }
+
+        long count = 0;
+        try (Stream<ContactExportRow> rows = contactRepo.streamContactExportRows(userId)) {
+            ContactDetailResponseDto current = null;
+            for (Iterator<ContactExportRow> it = rows.iterator(); it.hasNext(); ) {
+                ContactExportRow row = it.next();
+                if (current == null || !current.getId().equals(row.getId())) {
+                    if (current != null) {
+                        write(format, writer, json, current);
+                        count++;
+                    }
+                    current = newContact(row);
+                }
+                addItem(current, row);
+            }
+            if (current != null) {
+                write(format, writer, json, current);
+                count++;
+            }
+        }
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+        log.info("USER: {} exported {} contacts as {}", userId, count, format);
+        return count;
+    }
+
+    private static ContactDetailResponseDto newContact(ContactExportRow row) {
+        ContactDetailResponseDto contact = new ContactDetailResponseDto();
+        contact.setId(row.getId());
+        contact.setVersion(row.getVersion());
+        contact.setTitle(row.getTitle());
+        contact.setFirstname(row.getFirstname());
+        contact.setLastname(row.getLastname());
+        contact.setEmails(new ArrayList<>(2));
+        contact.setPhones(new ArrayList<>(2));
+        return contact;
+    }
+
+    private static void addItem(ContactDetailResponseDto contact, ContactExportRow row) {
+        if ("E".equals(row.getItemkind())) {
+            ContactEmailDto email = new ContactEmailDto();
+            email.setEmailtype(row.getItemtype() != null ? EmailType.valueOf(row.getItemtype()) : null);
+            email.setEmailvalue(row.getItemvalue());
+            contact.getEmails().add(email);
+        } else if ("P".equals(row.getItemkind())) {
+            ContactPhoneDto phone = new ContactPhoneDto();
+            phone.setPhonetype(row.getItemtype() != null ? PhoneType.valueOf(row.getItemtype()) : null);
+            phone.setPhonevalue(row.getItemvalue());
+            contact.getPhones().add(phone);
+        }
+    }
+
+    private static void write(ContactExportFormat format, Writer writer, JsonGenerator json,
+                              ContactDetailResponseDto contact) throws IOException {
+        switch (format) {
+            case NDJSON -> {
+                json.writeObject(contact);
+                json.writeRaw('\n');
+            }
+            case CSV -> writeCsv(writer, contact);
+            case VCF -> writeVcard(writer, contact);
+        }
+    }
+
+    private static void writeCsv(Writer writer, ContactDetailResponseDto contact) throws IOException {
+        List<String> emails = new ArrayList<>(contact.getEmails().size());
+        for (ContactEmailDto email : contact.getEmails()) {
+            emails.add(email.getEmailtype() + ":" + nullToEmpty(email.getEmailvalue()));
+        }
+        List<String> phones = new ArrayList<>(contact.getPhones().size());
+        for (ContactPhoneDto phone : contact.getPhones()) {
+            phones.add(phone.getPhonetype() + ":" + nullToEmpty(phone.getPhonevalue()));
+        }
+        writer.write(contact.getId().toString());
+        writer.write(',');
+        writer.write(csvField(contact.getTitle()));
+        writer.write(',');
+        writer.write(csvField(contact.getFirstname()));
+        writer.write(',');
+        writer.write(csvField(contact.getLastname()));
+        writer.write(',');
+        writer.write(csvField(String.join(";", emails)));
+        writer.write(',');
+        writer.write(csvField(String.join(";", phones)));
+        writer.write("\r\n");
+    }
+
+    static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    private static void writeVcard(Writer writer, ContactDetailResponseDto contact) throws IOException {
+        writer.write("BEGIN:VCARD\r\nVERSION:3.0\r\n");
+        writeVcardLine(writer, "UID:" + contact.getId());
+        writeVcardLine(writer, "N:" + vcardText(contact.getLastname()) + ";" + vcardText(contact.getFirstname())
+                + ";;" + vcardText(contact.getTitle()) + ";");
+        String fullName = String.join(" ", nonEmpty(contact.getTitle(), contact.getFirstname(), contact.getLastname()));
+        writeVcardLine(writer, "FN:" + vcardText(fullName));
+        for (ContactEmailDto email : contact.getEmails()) {
+            writeVcardLine(writer, "EMAIL;TYPE=" + email.getEmailtype() + ":" + vcardText(email.getEmailvalue()));
+        }
+        for (ContactPhoneDto phone : contact.getPhones()) {
+            writeVcardLine(writer, "TEL;TYPE=" + phone.getPhonetype() + ":" + vcardText(phone.getPhonevalue()));
+        }
+        writer.write("END:VCARD\r\n");
+    }
+
+    /**
+     * Writes one content line, folded so no physical line exceeds 75 octets (RFC 2425 section 5.8.1).
+     */
+    private static void writeVcardLine(Writer writer, String line) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > VCARD_LINE_OCTETS) {
+                writer.write("\r\n ");
+                octets = 1;
+            }
+            writer.write(line, i, Character.charCount(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+
+    static String vcardText(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> escaped.append("\\\\");
+                case ',' -> escaped.append("\\,");
+                case ';' -> escaped.append("\\;");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> { }
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static List<String> nonEmpty(String... values) {
+        List<String> result = new ArrayList<>(values.length);
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                result.add(value.trim());
+            }
+        }
+        return result;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,33 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.error.BadRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+@Getter
+@RequiredArgsConstructor
+public enum ContactImportFormat {
+    CSV("csv"),
+    VCF("vcf");
+
+    private final String extension;
+
+    /**
+     * Uses the explicit format when given, otherwise the upload's file extension ({@code .vcard} is accepted for vCard).
+     */
+    public static ContactImportFormat from(String format, String filename) {
+        String name = format;
+        if (name == null || name.isBlank()) {
+            int dot = filename == null ? -1 : filename.lastIndexOf('.');
+            name = dot < 0 ? "" : filename.substring(dot + 1);
+        }
+        name = name.trim().toLowerCase(Locale.ROOT);
+        return switch (name) {
+            case "csv" -> CSV;
+            case "vcf", "vcard" -> VCF;
+            default -> throw new BadRequestException("Unsupported import format: " + (name.isEmpty() ? "unknown" : name));
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactImportErrorDto;
+import com.abbasza.contactapi.dto.ContactImportJobDto;
+import com.abbasza.contactapi.model.type.ImportStatus;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress of one import, written by its worker thread and read by status requests.
+ * Keeps at most {@code maxErrors} row errors; later ones are only counted.
+ */
+class ContactImportJob {
+    @Getter
+    private final UUID id = UUID.randomUUID();
+    @Getter
+    private final UUID userId;
+    @Getter
+    private final ContactImportFormat format;
+    private final int maxErrors;
+    private final LocalDateTime createdTime = LocalDateTime.now();
+    private final List<ContactImportErrorDto> errors = new ArrayList<>();
+    private ImportStatus status = ImportStatus.QUEUED;
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private String message;
+    private LocalDateTime finishedTime;
+
+    ContactImportJob(UUID userId, ContactImportFormat format, int maxErrors) {
+        this.userId = userId;
+        this.format = format;
+        this.maxErrors = maxErrors;
+    }
+
+    synchronized void start() {
+        status = ImportStatus.RUNNING;
+    }
+
+    synchronized void rowRead() {
+        rowsRead++;
+    }
+
+    synchronized void imported(int count) {
+        imported += count;
+    }
+
+    synchronized void rejected(long line, String error) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ContactImportErrorDto(line, error));
+        }
+    }
+
+    synchronized void complete() {
+        status = ImportStatus.COMPLETED;
+        finishedTime = LocalDateTime.now();
+    }
+
+    synchronized void fail(String message) {
+        this.message = message;
+        status = ImportStatus.FAILED;
+        finishedTime = LocalDateTime.now();
+    }
+
+    synchronized boolean isFinishedBefore(LocalDateTime time) {
+        return finishedTime != null && finishedTime.isBefore(time);
+    }
+
+    synchronized ContactImportJobDto toDto() {
+        return new ContactImportJobDto(id, format.getExtension(), status, rowsRead, imported, failed,
+                List.copyOf(errors), failed > errors.size(), message, createdTime, finishedTime);
+    }
+}
@@ -0,0 +1,16 @@
+package com.abbasza.contactapi.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Pull parser over an uploaded address book; reads one record at a time so an import never holds the whole file.
+ * Malformed records are returned with an error, malformed files fail with {@link IllegalArgumentException}.
+ */
+interface ContactImportReader extends Closeable {
+
+    /**
+     * @return the next record, or {@code null} at the end of the input
+     */
+    ContactImportRecord next() throws IOException;
+}
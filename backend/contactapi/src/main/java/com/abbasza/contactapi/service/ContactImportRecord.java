@@ -0,0 +1,24 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactRequestDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One parsed import record: either a contact or the reason it could not be parsed, with the line it starts on.
+ */
+@Getter
+@RequiredArgsConstructor
+class ContactImportRecord {
+    private final long line;
+    private final ContactRequestDto contact;
+    private final String error;
+
+    static ContactImportRecord of(long line, ContactRequestDto contact) {
+        return new ContactImportRecord(line, contact, null);
+    }
+
+    static ContactImportRecord error(long line, String error) {
+        return new ContactImportRecord(line, null, error);
+    }
+}
@@ -0,0 +1,274 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactEmailDto;
+import com.abbasza.contactapi.dto.ContactImportJobDto;
+import com.abbasza.contactapi.dto.ContactPhoneDto;
+import com.abbasza.contactapi.dto.ContactRequestDto;
+import com.abbasza.contactapi.error.BadRequestException;
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.ContactEmail;
+import com.abbasza.contactapi.model.ContactPhone;
+import com.abbasza.contactapi.repository.ContactBulkWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background import of CSV and vCard address books.
+ * <p>
+ * The upload is spooled to a temporary file and parsed as a stream on a bounded worker pool
+ * ({@code contact.import.pool-size} running, {@code contact.import.queue-capacity} waiting, anything beyond that is
+ * rejected with a {@link RejectedExecutionException}). Records are validated and collected into chunks of
+ * {@code contact.import.chunk-size}; each chunk is written in its own transaction through the {@link ContactBulkWriter},
+ * so memory is bounded by one chunk and a failing chunk only fails its own rows. Jobs are kept in memory for
+ * {@code contact.import.job-ttl} after they finish.
+ */
+@Service
+@Slf4j
+public class ContactImportService implements DisposableBean {
+    private static final int MAX_COLUMN_LENGTH = 255;
+
+    private final ContactBulkWriter contactBulkWriter;
+    private final ContactSearchEngine contactSearchEngine;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final Duration jobTtl;
+    private final Map<UUID, ContactImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ContactImportService(ContactBulkWriter contactBulkWriter,
+                                ContactSearchEngine contactSearchEngine,
+                                UserService userService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${contact.import.pool-size:2}") int poolSize,
+                                @Value("${contact.import.queue-capacity:16}") int queueCapacity,
+                                @Value("${contact.import.chunk-size:1000}") int chunkSize,
+                                @Value("${contact.import.max-errors:1000}") int maxErrors,
+                                @Value("${contact.import.job-ttl:1h}") Duration jobTtl) {
+        this(contactBulkWriter, contactSearchEngine, userService, new TransactionTemplate(transactionManager),
+                newExecutor(poolSize, queueCapacity), chunkSize, maxErrors, jobTtl);
+    }
+
+    ContactImportService(ContactBulkWriter contactBulkWriter, ContactSearchEngine contactSearchEngine,
+                         UserService userService, TransactionTemplate transactionTemplate, ExecutorService executor,
+                         int chunkSize, int maxErrors, Duration jobTtl) {
+        this.contactBulkWriter = contactBulkWriter;
+        this.contactSearchEngine = contactSearchEngine;
+        this.userService = userService;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.jobTtl = jobTtl;
+    }
+
+    @PreAuthorize("#userId == authentication.principal.id")
+    public ContactImportJobDto submit(UUID userId, MultipartFile file, String format) throws IOException {
+        ContactImportFormat importFormat = ContactImportFormat.from(format, file.getOriginalFilename());
+        if (file.isEmpty()) {
+            throw new BadRequestException("Import file is empty");
+        }
+        purgeFinishedJobs();
+        Path spool = Files.createTempFile("contact-import-", "." + importFormat.getExtension());
+        try {
+            file.transferTo(spool);
+            ContactImportJob job = new ContactImportJob(userId, importFormat, maxErrors);
+            jobs.put(job.getId(), job);
+            try {
+                executor.execute(() -> run(job, spool));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.getId());
+                log.error("Import queue full, rejecting import for USER: {}", userId);
+                throw new RejectedExecutionException("Import capacity exhausted, retry shortly", e);
+            }
+            log.info("USER: {} queued {} import {} ({} bytes)", userId, importFormat, job.getId(), file.getSize());
+            return job.toDto();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+    }
+
+    @PreAuthorize("#userId == authentication.principal.id")
+    public Optional<ContactImportJobDto> getJob(UUID userId, UUID jobId) {
+        ContactImportJob job = jobs.get(jobId);
+        return job == null || !job.getUserId().equals(userId) ? Optional.empty() : Optional.of(job.toDto());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    void run(ContactImportJob job, Path spool) {
+        job.start();
+        try (ContactImportReader reader = open(job.getFormat(), spool)) {
+            List<Contact> chunk = new ArrayList<>(chunkSize);
+            List<Long> lines = new ArrayList<>(chunkSize);
+            ContactImportRecord record;
+            while ((record = reader.next()) != null) {
+                job.rowRead();
+                String error = record.getError() != null ? record.getError() : validate(record.getContact());
+                if (error != null) {
+                    job.rejected(record.getLine(), error);
+                    continue;
+                }
+                chunk.add(buildContact(record.getContact()));
+                lines.add(record.getLine());
+                if (chunk.size() == chunkSize) {
+                    writeChunk(job, chunk, lines);
+                    chunk = new ArrayList<>(chunkSize);
+                    lines = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(job, chunk, lines);
+            }
+            job.complete();
+            ContactImportJobDto result = job.toDto();
+            log.info("USER: {} finished import {}: {} imported, {} failed", job.getUserId(), job.getId(),
+                    result.getImported(), result.getFailed());
+        } catch (IOException | RuntimeException e) {
+            log.error("USER: {} import {} failed: {}", job.getUserId(), job.getId(), e.getMessage());
+            job.fail(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException e) {
+                log.error("Could not delete import spool file {}", spool);
+            }
+        }
+    }
+
+    private void writeChunk(ContactImportJob job, List<Contact> chunk, List<Long> lines) {
+        UUID userId = job.getUserId();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                long changeVersion = userService.incrementContactsVersion(userId);
+                LocalDateTime now = LocalDateTime.now();
+                for (Contact contact : chunk) {
+                    contact.setChangeVersion(changeVersion);
+                    contact.setUpdatedAt(now);
+                }
+                contactBulkWriter.insert(userId, chunk);
+                for (Contact contact : chunk) {
+                    contactSearchEngine.onContactSaved(userId, contact);
+                }
+            });
+            job.imported(chunk.size());
+        } catch (RuntimeException e) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.error("USER: {} import {} could not save chunk of {}: {}", userId, job.getId(), chunk.size(), cause);
+            for (Long line : lines) {
+                job.rejected(line, "could not be saved: " + cause);
+            }
+        }
+    }
+
+    private static ContactImportReader open(ContactImportFormat format, Path spool) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(spool), StandardCharsets.UTF_8));
+        try {
+            reader.mark(1);
+            if (reader.read() != '\uFEFF') {
+                reader.reset();
+            }
+            return format == ContactImportFormat.CSV ? new ContactCsvImportReader(reader) : new ContactVcardImportReader(reader);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    static String validate(ContactRequestDto contact) {
+        String error = ContactService.validateContactRequest(contact);
+        if (error != null) {
+            return error;
+        }
+        if (tooLong(contact.getTitle()) || tooLong(contact.getFirstname()) || tooLong(contact.getLastname())) {
+            return "names and title must not exceed " + MAX_COLUMN_LENGTH + " characters";
+        }
+        if (contact.getEmails() != null && contact.getEmails().stream().anyMatch(email -> tooLong(email.getEmailvalue()))) {
+            return "emails must not exceed " + MAX_COLUMN_LENGTH + " characters";
+        }
+        if (contact.getPhones() != null && contact.getPhones().stream().anyMatch(phone -> tooLong(phone.getPhonevalue()))) {
+            return "phones must not exceed " + MAX_COLUMN_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_COLUMN_LENGTH;
+    }
+
+    private static Contact buildContact(ContactRequestDto contactRequestDto) {
+        Contact contact = Contact.builder()
+                .id(UUID.randomUUID())
+                .version(0L)
+                .title(contactRequestDto.getTitle())
+                .firstName(contactRequestDto.getFirstname())
+                .lastName(contactRequestDto.getLastname())
+                .emails(new ArrayList<>())
+                .phones(new ArrayList<>())
+                .build();
+        if (contactRequestDto.getEmails() != null) {
+            for (ContactEmailDto requestEmail : contactRequestDto.getEmails()) {
+                contact.getEmails().add(ContactEmail.builder()
+                        .id(UUID.randomUUID())
+                        .contact(contact)
+                        .emailType(requestEmail.getEmailtype())
+                        .emailValue(requestEmail.getEmailvalue())
+                        .build());
+            }
+        }
+        if (contactRequestDto.getPhones() != null) {
+            for (ContactPhoneDto requestPhone : contactRequestDto.getPhones()) {
+                contact.getPhones().add(ContactPhone.builder()
+                        .id(UUID.randomUUID())
+                        .contact(contact)
+                        .phoneType(requestPhone.getPhonetype())
+                        .phoneValue(requestPhone.getPhonevalue())
+                        .build());
+            }
+        }
+        return contact;
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(jobTtl);
+        jobs.values().removeIf(job -> job.isFinishedBefore(cutoff));
+    }
+
+    private static ExecutorService newExecutor(int poolSize, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                task -> {
+                    Thread thread = new Thread(task, "contact-import-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,26 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactResponseDto;
+import com.abbasza.contactapi.model.Contact;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Backend behind {@code GET /contact/s}, selected with {@code contact.search.engine}.
+ * Write hooks are invoked by {@link ContactService} so engines that keep their own state can follow changes.
+ */
+public interface ContactSearchEngine {
+
+    List<ContactResponseDto> search(UUID userId, String query, Pageable pageable);
+
+    default void onContactSaved(UUID userId, Contact contact) {
+    }
+
+    default void onContactDeleted(UUID userId, UUID contactId) {
+    }
+
+    default void onUserDeleted(UUID userId) {
+    }
+}
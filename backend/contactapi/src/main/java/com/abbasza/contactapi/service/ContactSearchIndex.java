@@ -0,0 +1,396 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactResponseDto;
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.repository.ContactRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-user in-memory trigram index over contact first and last names.
+ * <p>
+ * A user's index is loaded from the database on the first search and afterwards kept in step
+ * with committed writes, so substring searches are answered without a {@code LIKE '%q%'} scan.
+ * Indexes that sit idle for longer than {@code contact.search.index.idle-timeout}, or that push
+ * the estimated footprint past {@code contact.search.index.max-bytes}, are dropped and rebuilt
+ * on the next search.
+ */
+@Component
+@Slf4j
+public class ContactSearchIndex {
+    private static final int MIN_GRAM = 3;
+
+    private final ContactRepo contactRepo;
+    private final long maxBytes;
+    private final long idleTimeoutMillis;
+    private final Map<UUID, UserIndex> indexes = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    public ContactSearchIndex(ContactRepo contactRepo,
+                              @Value("${contact.search.index.max-bytes:268435456}") long maxBytes,
+                              @Value("${contact.search.index.idle-timeout:30m}") Duration idleTimeout) {
+        this.contactRepo = contactRepo;
+        this.maxBytes = maxBytes;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+    }
+
+    public List<ContactResponseDto> search(UUID userId, String query, int offset, int limit) {
+        String needle = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        UserIndex index = indexes.computeIfAbsent(userId, UserIndex::new);
+        index.touch();
+        if (!index.isLoaded()) {
+            load(index);
+        }
+        return index.search(needle, offset, limit);
+    }
+
+    public void onContactSaved(UUID userId, Contact contact) {
+        ContactResponseDto entry = new ContactResponseDto(contact.getId(), contact.getTitle(), contact.getFirstName(), contact.getLastName());
+        afterCommit(() -> {
+            UserIndex index = indexes.get(userId);
+            if (index != null && index.upsert(entry)) {
+                enforceBudget(index);
+            }
+        });
+    }
+
+    public void onContactDeleted(UUID userId, UUID contactId) {
+        afterCommit(() -> {
+            UserIndex index = indexes.get(userId);
+            if (index != null) {
+                index.remove(contactId);
+            }
+        });
+    }
+
+    public void onUserDeleted(UUID userId) {
+        afterCommit(() -> evict(userId));
+    }
+
+    public void evict(UUID userId) {
+        UserIndex index = indexes.remove(userId);
+        if (index != null) {
+            index.retire();
+        }
+    }
+
+    long estimatedBytes() {
+        return totalBytes.get();
+    }
+
+    boolean isIndexed(UUID userId) {
+        UserIndex index = indexes.get(userId);
+        return index != null && index.isLoaded();
+    }
+
+    private void load(UserIndex index) {
+        index.lock.writeLock().lock();
+        try {
+            if (index.loaded) {
+                return;
+            }
+            long start = System.nanoTime();
+            for (ContactResponseDto contact : contactRepo.findContactSummariesByUserId(index.userId)) {
+                index.add(contact);
+            }
+            index.loaded = true;
+            log.info("Indexed {} Contacts for USER: {} in {} ms", index.size(), index.userId, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+        evictIdle();
+        enforceBudget(index);
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        indexes.values().stream()
+                .filter(index -> index.lastAccess < cutoff)
+                .toList()
+                .forEach(index -> evictIfCurrent(index, "idle"));
+    }
+
+    private void enforceBudget(UserIndex current) {
+        if (totalBytes.get() <= maxBytes) {
+            return;
+        }
+        List<UserIndex> byAge = new ArrayList<>(indexes.values());
+        byAge.sort(Comparator.comparingLong(index -> index.lastAccess));
+        for (UserIndex index : byAge) {
+            if (totalBytes.get() <= maxBytes) {
+                return;
+            }
+            if (index != current) {
+                evictIfCurrent(index, "memory budget");
+            }
+        }
+    }
+
+    private void evictIfCurrent(UserIndex index, String reason) {
+        if (indexes.remove(index.userId, index)) {
+            index.retire();
+            log.info("Evicted search index for USER: {} ({})", index.userId, reason);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long gramKey(String text, int at) {
+        return ((long) Character.toLowerCase(text.charAt(at)) << 32)
+                | ((long) Character.toLowerCase(text.charAt(at + 1)) << 16)
+                | Character.toLowerCase(text.charAt(at + 2));
+    }
+
+    private static boolean containsLower(String haystack, String needle) {
+        if (haystack == null) {
+            return false;
+        }
+        int last = haystack.length() - needle.length();
+        for (int i = 0; i <= last; i++) {
+            int j = 0;
+            while (j < needle.length() && Character.toLowerCase(haystack.charAt(i + j)) == needle.charAt(j)) {
+                j++;
+            }
+            if (j == needle.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40L + 2L * value.length();
+    }
+
+    /**
+     * Growable, ascending list of document ordinals for a single trigram.
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[2];
+        private int size;
+
+        void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return;
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        int[] intersect(int[] candidates, int count, int[] out) {
+            int matched = 0;
+            int i = 0;
+            int j = 0;
+            while (i < count && j < size) {
+                if (candidates[i] == ordinals[j]) {
+                    out[matched++] = candidates[i];
+                    i++;
+                    j++;
+                } else if (candidates[i] < ordinals[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, matched);
+        }
+    }
+
+    private final class UserIndex {
+        private final UUID userId;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private final Map<UUID, Integer> ordinalById = new HashMap<>();
+        private final List<ContactResponseDto> docs = new ArrayList<>();
+        private final BitSet deleted = new BitSet();
+        private volatile boolean loaded;
+        private volatile long lastAccess = System.currentTimeMillis();
+        private long bytes;
+        private boolean evicted;
+
+        UserIndex(UUID userId) {
+            this.userId = userId;
+        }
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+
+        boolean isLoaded() {
+            return loaded;
+        }
+
+        int size() {
+            return ordinalById.size();
+        }
+
+        /**
+         * Releases this index's bytes from the global total once it has left the map. Taken under the
+         * write lock, so a load or upsert still holding a reference either finishes first or sees the
+         * flag and stops counting.
+         */
+        void retire() {
+            lock.writeLock().lock();
+            try {
+                evicted = true;
+                totalBytes.addAndGet(-bytes);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<ContactResponseDto> search(String needle, int offset, int limit) {
+            lock.readLock().lock();
+            try {
+                int[] candidates = needle.length() < MIN_GRAM ? null : candidates(needle);
+                Comparator<ContactResponseDto> order = Comparator
+                        .comparing(ContactResponseDto::getFirstname, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+                        .thenComparing(ContactResponseDto::getLastname, Comparator.nullsLast(Comparator.<String>naturalOrder()));
+                PriorityQueue<ContactResponseDto> top = new PriorityQueue<>(order.reversed());
+                int keep = offset + limit;
+                int count = candidates == null ? docs.size() : candidates.length;
+                for (int i = 0; i < count; i++) {
+                    int ordinal = candidates == null ? i : candidates[i];
+                    ContactResponseDto doc = docs.get(ordinal);
+                    if (deleted.get(ordinal) || !(containsLower(doc.getFirstname(), needle) || containsLower(doc.getLastname(), needle))) {
+                        continue;
+                    }
+                    top.offer(doc);
+                    if (top.size() > keep) {
+                        top.poll();
+                    }
+                }
+                List<ContactResponseDto> sorted = new ArrayList<>(top);
+                sorted.sort(order);
+                return sorted.subList(Math.min(offset, sorted.size()), sorted.size());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private int[] candidates(String needle) {
+            List<Postings> lists = new ArrayList<>();
+            for (int i = 0; i + MIN_GRAM <= needle.length(); i++) {
+                Postings list = postings.get(gramKey(needle, i));
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            Postings smallest = lists.get(0);
+            int[] result = Arrays.copyOf(smallest.ordinals, smallest.size);
+            int[] scratch = new int[result.length];
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = lists.get(i).intersect(result, result.length, scratch);
+            }
+            return result;
+        }
+
+        boolean upsert(ContactResponseDto contact) {
+            lock.writeLock().lock();
+            try {
+                if (!loaded || evicted) {
+                    return false;
+                }
+                removeLocked(contact.getId());
+                add(contact);
+                if (deleted.cardinality() > docs.size() / 2) {
+                    compact();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        }
+
+        void remove(UUID contactId) {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    removeLocked(contactId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(UUID contactId) {
+            Integer ordinal = ordinalById.remove(contactId);
+            if (ordinal != null) {
+                deleted.set(ordinal);
+            }
+        }
+
+        private void add(ContactResponseDto contact) {
+            int ordinal = docs.size();
+            docs.add(contact);
+            ordinalById.put(contact.getId(), ordinal);
+            long added = 64 + stringBytes(contact.getFirstname()) + stringBytes(contact.getLastname()) + stringBytes(contact.getTitle());
+            added += addGrams(contact.getFirstname(), ordinal) + addGrams(contact.getLastname(), ordinal);
+            bytes += added;
+            if (!evicted) {
+                totalBytes.addAndGet(added);
+            }
+        }
+
+        private long addGrams(String value, int ordinal) {
+            long added = 0;
+            if (value == null) {
+                return added;
+            }
+            for (int i = 0; i + MIN_GRAM <= value.length(); i++) {
+                Postings list = postings.get(gramKey(value, i));
+                if (list == null) {
+                    list = new Postings();
+                    postings.put(gramKey(value, i), list);
+                    added += 80;
+                }
+                int capacity = list.ordinals.length;
+                list.add(ordinal);
+                added += 4L * (list.ordinals.length - capacity);
+            }
+            return added;
+        }
+
+        private void compact() {
+            List<ContactResponseDto> live = new ArrayList<>(ordinalById.size());
+            for (int i = 0; i < docs.size(); i++) {
+                if (!deleted.get(i)) {
+                    live.add(docs.get(i));
+                }
+            }
+            docs.clear();
+            postings.clear();
+            ordinalById.clear();
+            deleted.clear();
+            if (!evicted) {
+                totalBytes.addAndGet(-bytes);
+            }
+            bytes = 0;
+            live.forEach(this::add);
+        }
+    }
+}
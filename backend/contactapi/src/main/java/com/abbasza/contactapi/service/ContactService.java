@@ -1,142 +1,257 @@
 package com.abbasza.contactapi.service;
 
 import com.abbasza.contactapi.dto.*;
+import com.abbasza.contactapi.error.BadRequestException;
+import com.abbasza.contactapi.mapper.ContactMapper;
 import com.abbasza.contactapi.model.Contact;
 import com.abbasza.contactapi.model.ContactEmail;
 import com.abbasza.contactapi.model.ContactPhone;
 import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.repository.ContactCache;
 import com.abbasza.contactapi.repository.ContactEmailRepo;
 import com.abbasza.contactapi.repository.ContactPhoneRepo;
 import com.abbasza.contactapi.repository.ContactRepo;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
-@Transactional(rollbackOn = Exception.class)
+@Transactional(rollbackFor = Exception.class)
 @Slf4j
 public class ContactService {
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final ContactRepo contactRepo;
     private final ContactEmailRepo contactEmailRepo;
     private final ContactPhoneRepo contactPhoneRepo;
     private final UserService userService;
-    private final ModelMapper modelMapper;
+    private final ContactMapper contactMapper;
+    private final ContactSearchEngine contactSearchEngine;
+    private final ContactCache contactCache;
+    private final ContactChangeService contactChangeService;
 
-    @PreAuthorize("#username == authentication.principal.username")
-    public Page<ContactResponseDto> getAllContacts(String username, int page, int size) {
-        User user = userService.findUserByUsername(username);
-        Page<Contact> contacts = contactRepo.findContactsByUserId(user.getId(), PageRequest.of(page, size, Sort.by("firstName")));
-        return contacts.map(contact -> modelMapper.map(contact, ContactResponseDto.class));
+    /**
+     * Version of the user's whole contact list, bumped by every create, edit and delete. Read it before the page it
+     * tags, so a concurrent write can only make the tag older than the page, never newer.
+     */
+    @PreAuthorize("#userId == authentication.principal.id")
+    @Transactional(readOnly = true)
+    public long getContactsVersion(UUID userId) {
+        return userService.getContactsVersion(userId);
     }
 
-    @PreAuthorize("#username == authentication.principal.username")
-    public List<ContactResponseDto> getSearchContacts(String username, String query) {
-        User user = userService.findUserByUsername(username);
-        List<Contact> contacts = contactRepo.findContactByFirstNameOrLastName(user.getId(), query);
-        return contacts.stream().map(contact -> modelMapper.map(contact, ContactResponseDto.class)).toList();
+    @PreAuthorize("#userId == authentication.principal.id")
+    @Transactional(readOnly = true)
+    public Page<ContactResponseDto> getAllContacts(UUID userId, int page, int size) {
+        return contactRepo.findContactSummariesByUserId(userId, PageRequest.of(page, size, Sort.by("firstName")));
     }
 
-    @PreAuthorize("#username == authentication.principal.username")
-    public ContactDetailResponseDto getContact(String username, UUID id) {
-        User user = userService.findUserByUsername(username);
-        Optional<Contact> contact = contactRepo.findContactByIdAndUserId(id, user.getId());
+    @PreAuthorize("#userId == authentication.principal.id")
+    @Transactional(readOnly = true)
+    public ContactSliceResponseDto getContactsAfter(UUID userId, String cursor, int size) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must not be less than one");
+        }
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ContactResponseDto> contacts;
+        if (cursor == null || cursor.isEmpty()) {
+            contacts = contactRepo.findFirstContactSummariesByUserId(userId, limit);
+        } else {
+            ContactCursor after = ContactCursor.decode(cursor);
+            contacts = after.getLastName() == null
+                    ? contactRepo.findContactSummariesByUserIdAfterNullLastName(userId, after.getFirstName(), after.getId(), limit)
+                    : contactRepo.findContactSummariesByUserIdAfter(userId, after.getFirstName(), after.getLastName(), after.getId(), limit);
+        }
+        boolean hasNext = contacts.size() > size;
+        List<ContactResponseDto> slice = hasNext ? contacts.subList(0, size) : contacts;
+        String nextCursor = hasNext ? ContactCursor.of(slice.get(size - 1)).encode() : null;
+        return new ContactSliceResponseDto(slice, nextCursor, hasNext);
+    }
+
+    @PreAuthorize("#userId == authentication.principal.id")
+    @Transactional(readOnly = true)
+    public List<ContactResponseDto> getSearchContacts(UUID userId, String query, int page, int size) {
+        return contactSearchEngine.search(userId, query, PageRequest.of(page, size));
+    }
+
+    /**
+     * Version column alone, for answering a conditional read without loading the contact.
+     */
+    @PreAuthorize("#userId == authentication.principal.id")
+    @Transactional(readOnly = true)
+    public Optional<Long> getContactVersion(UUID userId, UUID id) {
+        return contactRepo.findVersionByIdAndUserId(id, userId);
+    }
+
+    /**
+     * Served from the second-level cache when the contact is already there (queries bypass it), otherwise loaded with
+     * its emails in one query, which also populates the cache.
+     */
+    @PreAuthorize("#userId == authentication.principal.id")
+    @Transactional(readOnly = true)
+    public ContactDetailResponseDto getContact(UUID userId, UUID id) {
+        Optional<Contact> contact = contactCache.contains(id)
+                ? contactRepo.findById(id).filter(cached -> userId.equals(cached.getUser().getId()))
+                : contactRepo.findContactDetailByIdAndUserId(id, userId);
         if (contact.isPresent()) {
-            return modelMapper.map(contact.get(), ContactDetailResponseDto.class);
+            return contactMapper.toContactDetailResponse(contact.get());
         } else {
             log.info("Contact: {} Not Found", id);
             throw new EntityNotFoundException("Contact Not Found " + id);
         }
     }
 
-    @PreAuthorize("#username == authentication.principal.username")
-    public ContactDetailResponseDto saveContact(String username, ContactRequestDto contactRequestDto) {
+    /**
+     * Details for up to {@value #MAX_BATCH_SIZE} contacts in request order, skipping ids the user does not own.
+     * One query loads the contacts and one subselect each loads all of their emails and phones.
+     */
+    @PreAuthorize("#userId == authentication.principal.id")
+    @Transactional(readOnly = true)
+    public List<ContactDetailResponseDto> getContacts(UUID userId, List<UUID> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Request must contain between 1 and " + MAX_BATCH_SIZE + " Contact ids");
+        }
+        Map<UUID, Contact> contacts = new HashMap<>();
+        for (Contact contact : contactRepo.findContactsByIdInAndUserId(new HashSet<>(ids), userId)) {
+            contacts.put(contact.getId(), contact);
+        }
+        return new LinkedHashSet<>(ids).stream()
+                .map(contacts::get)
+                .filter(Objects::nonNull)
+                .map(contactMapper::toContactDetailResponse)
+                .toList();
+    }
+
+    @PreAuthorize("#userId == authentication.principal.id")
+    public ContactDetailResponseDto saveContact(UUID userId, ContactRequestDto contactRequestDto) {
         try {
-            log.info("Creating Contact for User: {}", username);
-            User user = userService.findUserByUsername(username);
-            Contact contact = Contact.builder()
-                    .title(contactRequestDto.getTitle())
-                    .firstName(contactRequestDto.getFirstname())
-                    .lastName(contactRequestDto.getLastname())
-                    .build();
-
-            contact.setUser(user);
+            log.info("Creating Contact for User: {}", userId);
+            Contact contact = buildContact(userService.getUserReference(userId), contactRequestDto);
+            markChanged(contact, userService.incrementContactsVersion(userId));
             Contact savedContact = contactRepo.save(contact);
+            contactSearchEngine.onContactSaved(userId, savedContact);
+            return contactMapper.toContactDetailResponse(savedContact);
+        } catch (Exception e) {
+            log.error("Error occured while creating Contact for User: {}", userId);
+            throw new IllegalArgumentException(e);
+        }
+    }
 
-            if (contactRequestDto.getEmails() != null && !contactRequestDto.getEmails().isEmpty()) {
-                contact = saveContactEmail(savedContact, contactRequestDto.getEmails());
-                savedContact = contactRepo.save(contact);
-            }
-            if (contactRequestDto.getPhones() != null && !contactRequestDto.getPhones().isEmpty()) {
-                contact = saveContactPhone(savedContact, contactRequestDto.getPhones());
-                savedContact = contactRepo.save(contact);
+    @PreAuthorize("#userId == authentication.principal.id")
+    public List<ContactBatchResultDto> saveContacts(UUID userId, List<ContactRequestDto> contactRequestDtos) {
+        if (contactRequestDtos == null || contactRequestDtos.isEmpty() || contactRequestDtos.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " Contacts");
+        }
+        log.info("Creating {} Contacts for User: {}", contactRequestDtos.size(), userId);
+        User user = userService.getUserReference(userId);
+
+        ContactBatchResultDto[] results = new ContactBatchResultDto[contactRequestDtos.size()];
+        List<Contact> contacts = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < contactRequestDtos.size(); i++) {
+            String error = validateContactRequest(contactRequestDtos.get(i));
+            if (error != null) {
+                results[i] = new ContactBatchResultDto(i, null, HttpStatus.BAD_REQUEST, error);
+            } else {
+                contacts.add(buildContact(user, contactRequestDtos.get(i)));
+                indexes.add(i);
             }
+        }
 
-            user.getContacts().add(savedContact);
-            userService.updateUser(user);
-            return modelMapper.map(savedContact, ContactDetailResponseDto.class);
-        } catch (Exception e) {
-            log.error("Error occured while creating Contact for User: {}", username);
-            throw new IllegalArgumentException(e);
+        if (!contacts.isEmpty()) {
+            long changeVersion = userService.incrementContactsVersion(userId);
+            for (Contact contact : contacts) {
+                markChanged(contact, changeVersion);
+            }
         }
+        contactRepo.saveAll(contacts);
+        contactRepo.flush();
+        for (int i = 0; i < contacts.size(); i++) {
+            Contact contact = contacts.get(i);
+            contactSearchEngine.onContactSaved(userId, contact);
+            results[indexes.get(i)] = new ContactBatchResultDto(indexes.get(i), contact.getId(), HttpStatus.CREATED, null);
+        }
+        return List.of(results);
     }
 
-    @PreAuthorize("#username == authentication.principal.username")
-    public ContactDetailResponseDto updateContact(String username, UUID contactId, ContactRequestDto contactRequestDto) {
+    @PreAuthorize("#userId == authentication.principal.id")
+    public ContactDetailResponseDto updateContact(UUID userId, UUID contactId, ContactRequestDto contactRequestDto) {
         try {
             log.info("Updating Contact: {}", contactId);
-            User user = userService.findUserByUsername(username);
-            Optional<Contact> optionalContact = contactRepo.findContactByIdAndUserId(contactId, user.getId());
+            Optional<Contact> optionalContact = contactRepo.findContactByIdAndUserId(contactId, userId);
             if (optionalContact.isPresent()) {
-                Contact contact = updateContactName(contactRequestDto, optionalContact.get());
+                Contact contact = optionalContact.get();
+                if (contactRequestDto.getVersion() != null && !contactRequestDto.getVersion().equals(contact.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Contact.class, contactId);
+                }
+                String firstName = contact.getFirstName();
+                String lastName = contact.getLastName();
+                String title = contact.getTitle();
+                updateContactName(contactRequestDto, contact);
+                boolean renamed = !Objects.equals(firstName, contact.getFirstName())
+                        || !Objects.equals(lastName, contact.getLastName())
+                        || !Objects.equals(title, contact.getTitle());
 
+                List<ContactEmail> emails = new ArrayList<>(contactEmailRepo.findContactEmailsByContactId(contactId));
+                List<ContactPhone> phones = new ArrayList<>(contactPhoneRepo.findContactPhoneByContactId(contactId));
+                boolean childrenChanged = false;
                 if (contactRequestDto.getEmails() != null && !contactRequestDto.getEmails().isEmpty()) {
-                    for (ContactEmail dbEmail : contactEmailRepo.findContactEmailsByContactId(contactId)) {
-                        contactEmailRepo.deleteById(dbEmail.getId());
-                    }
-                    contact = saveContactEmail(contact, contactRequestDto.getEmails());
+                    childrenChanged = mergeContactEmails(contact, contactRequestDto.getEmails(), emails);
                 }
-
                 if (contactRequestDto.getPhones() != null && !contactRequestDto.getPhones().isEmpty()) {
-                    for (ContactPhone dbPhone : contactPhoneRepo.findContactPhoneByContactId(contactId)) {
-                        contactPhoneRepo.deleteById(dbPhone.getId());
-                    }
-                    contact = saveContactPhone(contact, contactRequestDto.getPhones());
+                    childrenChanged |= mergeContactPhones(contact, contactRequestDto.getPhones(), phones);
                 }
 
-                Contact savedContact = contactRepo.save(contact);
-                return modelMapper.map(savedContact, ContactDetailResponseDto.class);
+                // Stamping the change dirties the contact, so child-only edits bump its version through the same
+                // version-checked update as a rename
+                if (renamed || childrenChanged) {
+                    markChanged(contact, userService.incrementContactsVersion(userId));
+                }
+                if (childrenChanged) {
+                    contactCache.evict(contactId);
+                }
+                contactRepo.flush();
+                contactSearchEngine.onContactSaved(userId, contact);
+                return contactMapper.toContactDetailResponse(contact, emails, phones);
             } else {
                 log.info("Contact: {} Not Found", contactId);
                 throw new EntityNotFoundException("Contact " + contactId + " Not Found");
             }
+        } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+            log.info("Contact: {} was modified concurrently", contactId);
+            throw e;
         } catch (Exception e) {
             log.error("Error occured while updating Contact: {}", contactId);
             throw new IllegalArgumentException(e);
         }
     }
 
-    @PreAuthorize("#username == authentication.principal.username")
-    public boolean deleteContactById(String username, UUID id) {
+    @PreAuthorize("#userId == authentication.principal.id")
+    public boolean deleteContactById(UUID userId, UUID id) {
         try {
             log.info("Deleting Contact: {}", id);
-            User user = userService.findUserByUsername(username);
-            Optional<Contact> contact = contactRepo.findContactByIdAndUserId(id, user.getId());
+            Optional<Contact> contact = contactRepo.findContactByIdAndUserId(id, userId);
             if (contact.isPresent()) {
                 contactRepo.deleteById(id);
+                contactCache.evict(id);
+                contactChangeService.recordDeletion(userId, id, userService.incrementContactsVersion(userId));
+                contactSearchEngine.onContactDeleted(userId, id);
                 return true;
             } else {
                 log.info("Contact: {} Not Found", id);
@@ -148,6 +263,56 @@ public class ContactService {
         }
     }
 
+    static String validateContactRequest(ContactRequestDto contactRequestDto) {
+        if (contactRequestDto == null || contactRequestDto.getFirstname() == null || contactRequestDto.getFirstname().isEmpty()) {
+            return "firstname is required";
+        }
+        if (contactRequestDto.getEmails() != null && contactRequestDto.getEmails().stream()
+                .anyMatch(email -> email == null || email.getEmailtype() == null || email.getEmailvalue() == null)) {
+            return "emails require emailtype and emailvalue";
+        }
+        if (contactRequestDto.getPhones() != null && contactRequestDto.getPhones().stream()
+                .anyMatch(phone -> phone == null || phone.getPhonetype() == null || phone.getPhonevalue() == null)) {
+            return "phones require phonetype and phonevalue";
+        }
+        return null;
+    }
+
+    private static void markChanged(Contact contact, long changeVersion) {
+        contact.setChangeVersion(changeVersion);
+        contact.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private static Contact buildContact(User user, ContactRequestDto contactRequestDto) {
+        Contact contact = Contact.builder()
+                .user(user)
+                .title(contactRequestDto.getTitle())
+                .firstName(contactRequestDto.getFirstname())
+                .lastName(contactRequestDto.getLastname())
+                .emails(new ArrayList<>())
+                .phones(new ArrayList<>())
+                .build();
+        if (contactRequestDto.getEmails() != null) {
+            for (ContactEmailDto requestEmail : contactRequestDto.getEmails()) {
+                contact.getEmails().add(ContactEmail.builder()
+                        .contact(contact)
+                        .emailType(requestEmail.getEmailtype())
+                        .emailValue(requestEmail.getEmailvalue())
+                        .build());
+            }
+        }
+        if (contactRequestDto.getPhones() != null) {
+            for (ContactPhoneDto requestPhone : contactRequestDto.getPhones()) {
+                contact.getPhones().add(ContactPhone.builder()
+                        .contact(contact)
+                        .phoneType(requestPhone.getPhonetype())
+                        .phoneValue(requestPhone.getPhonevalue())
+                        .build());
+            }
+        }
+        return contact;
+    }
+
     private static Contact updateContactName(ContactRequestDto contactRequestDto, Contact contact) {
         contact.setFirstName((contactRequestDto.getFirstname() != null && !contactRequestDto.getFirstname().isEmpty()) ? contactRequestDto.getFirstname() : contact.getFirstName());
         contact.setLastName((contactRequestDto.getLastname() != null && !contactRequestDto.getLastname().isEmpty()) ? contactRequestDto.getLastname() : contact.getLastName());
@@ -155,45 +320,116 @@ public class ContactService {
         return contact;
     }
 
-    public Contact saveContactEmail(Contact contact, List<ContactEmailDto> requestEmails) {
-        log.info("Saving Contact Emails for contactid: {}", contact.getId());
-        List<ContactEmail> emailList = new ArrayList<>();
-        for (ContactEmailDto requestEmail : requestEmails) {
-            ContactEmail email = ContactEmail.builder()
-                    .emailType(requestEmail.getEmailtype())
-                    .emailValue(requestEmail.getEmailvalue())
-                    .build();
-            email.setContact(contact);
-            ContactEmail savedEmail = contactEmailRepo.save(email);
-            emailList.add(savedEmail);
-        }
-        if (contact.getEmails() == null) {
-            contact.setEmails(emailList);
-        } else {
-            contact.getEmails().clear();
-            contact.getEmails().addAll(emailList);
+    /**
+     * Merges the requested emails into the stored ones: exact (type, value) matches are kept untouched,
+     * leftover rows are rewritten in place, extra requested emails are inserted and surplus rows are
+     * removed with a single bulk delete, then evicted from the second-level cache by id. {@code emails} is
+     * updated to the merged list in request order.
+     *
+     * @return whether any row was inserted, updated or deleted
+     */
+    private boolean mergeContactEmails(Contact contact, List<ContactEmailDto> requestEmails, List<ContactEmail> emails) {
+        log.info("Merging Contact Emails for contactid: {}", contact.getId());
+        List<ContactEmail> unmatched = new ArrayList<>(emails);
+        ContactEmail[] merged = new ContactEmail[requestEmails.size()];
+        for (int i = 0; i < merged.length; i++) {
+            ContactEmailDto requestEmail = requestEmails.get(i);
+            for (ContactEmail email : unmatched) {
+                if (email.getEmailType() == requestEmail.getEmailtype() && Objects.equals(email.getEmailValue(), requestEmail.getEmailvalue())) {
+                    merged[i] = email;
+                    unmatched.remove(email);
+                    break;
+                }
+            }
         }
-        return contact;
+
+        boolean changed = false;
+        List<ContactEmail> inserts = new ArrayList<>();
+        for (int i = 0; i < merged.length; i++) {
+            if (merged[i] != null) {
+                continue;
+            }
+            ContactEmailDto requestEmail = requestEmails.get(i);
+            if (!unmatched.isEmpty()) {
+                merged[i] = unmatched.remove(unmatched.size() - 1);
+                merged[i].setEmailType(requestEmail.getEmailtype());
+                merged[i].setEmailValue(requestEmail.getEmailvalue());
+                changed = true;
+            } else {
+                merged[i] = ContactEmail.builder()
+                        .contact(contact)
+                        .emailType(requestEmail.getEmailtype())
+                        .emailValue(requestEmail.getEmailvalue())
+                        .build();
+                inserts.add(merged[i]);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            contactEmailRepo.saveAll(inserts);
+            changed = true;
+        }
+        if (!unmatched.isEmpty()) {
+            List<UUID> removed = unmatched.stream().map(ContactEmail::getId).toList();
+            contactEmailRepo.deleteAllByIdInBatch(removed);
+            contactCache.evictEntities(ContactEmail.class, removed);
+            changed = true;
+        }
+        emails.clear();
+        emails.addAll(Arrays.asList(merged));
+        return changed;
     }
 
-    public Contact saveContactPhone(Contact contact, List<ContactPhoneDto> requestPhones) {
-        log.info("Saving Contact Phones for contactid: {}", contact.getId());
-        List<ContactPhone> phoneList = new ArrayList<>();
-        for (ContactPhoneDto requestPhone : requestPhones) {
-            ContactPhone phone = ContactPhone.builder()
-                    .phoneType(requestPhone.getPhonetype())
-                    .phoneValue(requestPhone.getPhonevalue())
-                    .build();
-            phone.setContact(contact);
-            ContactPhone savedPhone = contactPhoneRepo.save(phone);
-            phoneList.add(savedPhone);
-        }
-        if (contact.getPhones() == null) {
-            contact.setPhones(phoneList);
-        } else {
-            contact.getPhones().clear();
-            contact.getPhones().addAll(phoneList);
+    /**
+     * Phone counterpart of {@link #mergeContactEmails(Contact, List, List)}.
+     */
+    private boolean mergeContactPhones(Contact contact, List<ContactPhoneDto> requestPhones, List<ContactPhone> phones) {
+        log.info("Merging Contact Phones for contactid: {}", contact.getId());
+        List<ContactPhone> unmatched = new ArrayList<>(phones);
+        ContactPhone[] merged = new ContactPhone[requestPhones.size()];
+        for (int i = 0; i < merged.length; i++) {
+            ContactPhoneDto requestPhone = requestPhones.get(i);
+            for (ContactPhone phone : unmatched) {
+                if (phone.getPhoneType() == requestPhone.getPhonetype() && Objects.equals(phone.getPhoneValue(), requestPhone.getPhonevalue())) {
+                    merged[i] = phone;
+                    unmatched.remove(phone);
+                    break;
+                }
+            }
         }
-        return contact;
+
+        boolean changed = false;
+        List<ContactPhone> inserts = new ArrayList<>();
+        for (int i = 0; i < merged.length; i++) {
+            if (merged[i] != null) {
+                continue;
+            }
+            ContactPhoneDto requestPhone = requestPhones.get(i);
+            if (!unmatched.isEmpty()) {
+                merged[i] = unmatched.remove(unmatched.size() - 1);
+                merged[i].setPhoneType(requestPhone.getPhonetype());
+                merged[i].setPhoneValue(requestPhone.getPhonevalue());
+                changed = true;
+            } else {
+                merged[i] = ContactPhone.builder()
+                        .contact(contact)
+                        .phoneType(requestPhone.getPhonetype())
+                        .phoneValue(requestPhone.getPhonevalue())
+                        .build();
+                inserts.add(merged[i]);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            contactPhoneRepo.saveAll(inserts);
+            changed = true;
+        }
+        if (!unmatched.isEmpty()) {
+            List<UUID> removed = unmatched.stream().map(ContactPhone::getId).toList();
+            contactPhoneRepo.deleteAllByIdInBatch(removed);
+            contactCache.evictEntities(ContactPhone.class, removed);
+            changed = true;
+        }
+        phones.clear();
+        phones.addAll(Arrays.asList(merged));
+        return changed;
     }
 }
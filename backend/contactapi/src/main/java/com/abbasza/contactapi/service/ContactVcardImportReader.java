@@ -0,0 +1,255 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactEmailDto;
+import com.abbasza.contactapi.dto.ContactPhoneDto;
+import com.abbasza.contactapi.dto.ContactRequestDto;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reader for vCard 2.1/3.0/4.0 files. Takes {@code N} (family, given, prefix), falling back to {@code FN} for the
+ * first name, plus every {@code EMAIL} and {@code TEL}; other properties are ignored. Type parameters are mapped to
+ * the nearest {@link EmailType}/{@link PhoneType}, so cards written by {@link ContactExportService} round-trip.
+ */
+class ContactVcardImportReader implements ContactImportReader {
+    static final int MAX_CARD_LINES = 500;
+    private static final int MAX_LINE_CHARS = ContactCsvImportReader.MAX_RECORD_CHARS;
+
+    private final BufferedReader reader;
+    private long physicalLine;
+    private long logicalLine;
+    private String lookahead;
+    private long lookaheadLine;
+
+    ContactVcardImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ContactImportRecord next() throws IOException {
+        String line;
+        do {
+            line = nextLine();
+            if (line == null) {
+                return null;
+            }
+        } while (!line.trim().equalsIgnoreCase("BEGIN:VCARD"));
+
+        long start = logicalLine;
+        ContactRequestDto contact = new ContactRequestDto();
+        contact.setEmails(new ArrayList<>());
+        contact.setPhones(new ArrayList<>());
+        String formattedName = null;
+        String error = null;
+        int lines = 0;
+        while ((line = nextLine()) != null && !line.trim().equalsIgnoreCase("END:VCARD")) {
+            if (error != null) {
+                continue;
+            }
+            if (++lines > MAX_CARD_LINES) {
+                error = "vCard has more than " + MAX_CARD_LINES + " lines";
+                continue;
+            }
+            int colon = valueSeparator(line);
+            if (colon < 0) {
+                continue;
+            }
+            String[] nameAndParams = line.substring(0, colon).split(";");
+            String name = nameAndParams[0].substring(nameAndParams[0].lastIndexOf('.') + 1).toUpperCase(Locale.ROOT);
+            String value = line.substring(colon + 1);
+            switch (name) {
+                case "N" -> {
+                    List<String> parts = components(value);
+                    contact.setLastname(blankToNull(part(parts, 0)));
+                    contact.setFirstname(blankToNull(part(parts, 1)));
+                    contact.setTitle(blankToNull(part(parts, 3)));
+                }
+                case "FN" -> formattedName = blankToNull(unescape(value));
+                case "EMAIL" -> {
+                    ContactEmailDto email = new ContactEmailDto();
+                    email.setEmailtype(emailType(types(nameAndParams)));
+                    email.setEmailvalue(unescape(value).trim());
+                    contact.getEmails().add(email);
+                }
+                case "TEL" -> {
+                    ContactPhoneDto phone = new ContactPhoneDto();
+                    phone.setPhonetype(phoneType(types(nameAndParams)));
+                    phone.setPhonevalue(unescape(value).trim());
+                    contact.getPhones().add(phone);
+                }
+                default -> {
+                }
+            }
+        }
+        if (line == null) {
+            return ContactImportRecord.error(start, "vCard has no END:VCARD");
+        }
+        if (error != null) {
+            return ContactImportRecord.error(start, error);
+        }
+        if (contact.getFirstname() == null) {
+            contact.setFirstname(formattedName);
+        }
+        return ContactImportRecord.of(start, contact);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads one logical line, joining folded continuation lines (those starting with a space or tab).
+     */
+    private String nextLine() throws IOException {
+        String line;
+        if (lookahead != null) {
+            line = lookahead;
+            logicalLine = lookaheadLine;
+            lookahead = null;
+        } else {
+            line = readPhysical();
+            logicalLine = physicalLine;
+        }
+        if (line == null) {
+            return null;
+        }
+        StringBuilder unfolded = null;
+        String next;
+        while ((next = readPhysical()) != null && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            if (unfolded == null) {
+                unfolded = new StringBuilder(line);
+            }
+            unfolded.append(next, 1, next.length());
+            if (unfolded.length() > MAX_LINE_CHARS) {
+                throw new IllegalArgumentException("Line " + logicalLine + " exceeds " + MAX_LINE_CHARS + " characters");
+            }
+        }
+        lookahead = next;
+        lookaheadLine = physicalLine;
+        return unfolded == null ? line : unfolded.toString();
+    }
+
+    private String readPhysical() throws IOException {
+        String line = reader.readLine();
+        if (line != null) {
+            physicalLine++;
+            if (line.length() > MAX_LINE_CHARS) {
+                throw new IllegalArgumentException("Line " + physicalLine + " exceeds " + MAX_LINE_CHARS + " characters");
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Index of the colon between the property name/parameters and the value, skipping quoted parameter values.
+     */
+    private static int valueSeparator(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ':' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Collects type tokens from {@code TYPE=a,b}, repeated {@code TYPE=} and bare vCard 2.1 parameters.
+     */
+    private static Set<String> types(String[] nameAndParams) {
+        Set<String> types = new HashSet<>();
+        for (int i = 1; i < nameAndParams.length; i++) {
+            String param = nameAndParams[i].trim();
+            int equals = param.indexOf('=');
+            if (equals < 0) {
+                types.add(param.toUpperCase(Locale.ROOT));
+            } else if (param.substring(0, equals).trim().equalsIgnoreCase("TYPE")) {
+                for (String type : param.substring(equals + 1).replace("\"", "").split(",")) {
+                    types.add(type.trim().toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        return types;
+    }
+
+    static EmailType emailType(Set<String> types) {
+        if (types.contains("WORK")) {
+            return EmailType.WORK;
+        }
+        if (types.contains("PERSONAL") || types.contains("HOME")) {
+            return EmailType.PERSONAL;
+        }
+        return EmailType.OTHER;
+    }
+
+    static PhoneType phoneType(Set<String> types) {
+        if (types.contains("WORK")) {
+            return PhoneType.WORK;
+        }
+        if (types.contains("HOME")) {
+            return PhoneType.HOME;
+        }
+        if (types.contains("PERSONAL") || types.contains("CELL")) {
+            return PhoneType.PERSONAL;
+        }
+        return PhoneType.OTHER;
+    }
+
+    /**
+     * Splits a structured value on unescaped semicolons and unescapes each component.
+     */
+    private static List<String> components(String value) {
+        List<String> parts = new ArrayList<>(5);
+        StringBuilder part = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                part.append(c).append(value.charAt(++i));
+            } else if (c == ';') {
+                parts.add(unescape(part.toString()));
+                part.setLength(0);
+            } else {
+                part.append(c);
+            }
+        }
+        parts.add(unescape(part.toString()));
+        return parts;
+    }
+
+    static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                unescaped.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    private static String part(List<String> parts, int index) {
+        return index < parts.size() ? parts.get(index) : null;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,303 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.ContactEmail;
+import com.abbasza.contactapi.model.ContactPhone;
+import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+import com.abbasza.contactapi.repository.ContactBulkWriter;
+import com.abbasza.contactapi.repository.ContactRepo;
+import com.abbasza.contactapi.repository.UserRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthetic users and contacts for benchmarks and plan checks, written at startup under the {@code seed} profile.
+ * <p>
+ * {@code seed.users} users ({@code seed-<n>@seed.local}, password {@code seed.password}) share {@code seed.contacts}
+ * contacts. With {@code seed.distribution: zipf} user {@code n} gets a share proportional to
+ * {@code 1 / (n + 1)^seed.skew}, so a few address books are very large and most are small; {@code uniform} splits
+ * them evenly. Each contact has 0 to {@code seed.max-emails} emails and 0 to {@code seed.max-phones} phones.
+ * <p>
+ * Every user's data comes from a {@link Random} derived from {@code seed.random-seed} and the user's number, so the
+ * same settings produce the same ids and values on every run, whatever the thread count. {@code seed.threads}
+ * workers take users one at a time; each writes its contacts in chunks of {@code seed.chunk-size}, one transaction per
+ * chunk, through the {@link ContactBulkWriter} (JDBC batches on H2, {@code COPY} on Postgres). Users are inserted in
+ * chunks too, and only those not present yet. A user's {@code contactsVersion} goes from 0 to 1 with its last chunk,
+ * so an interrupted run is completed on the next start: finished users are skipped and the others are rewritten from
+ * scratch.
+ */
+@Service
+@Slf4j
+@Profile("seed")
+public class DataSeeder implements ApplicationRunner {
+    static final String EMAIL_DOMAIN = "@seed.local";
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Ahmed", "Fatima",
+            "Ali", "Ayesha", "Omar", "Zainab", "Wei", "Mei", "Hiroshi", "Yuki", "Carlos", "Sofia", "Luca", "Giulia",
+            "Ivan", "Olga", "Pierre", "Camille", "Hans", "Anna", "Kwame", "Amara"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Khan", "Hussain", "Ahmed", "Malik", "Chen", "Wang", "Tanaka", "Sato", "Rossi", "Bianchi",
+            "Ivanov", "Petrova", "Dubois", "Martin", "Muller", "Schmidt", "Mensah", "Okafor", "Silva", "Santos"
+    };
+    private static final String[] TITLES = {"Mr", "Ms", "Mrs", "Dr", "Prof"};
+    private static final String[] DOMAINS = {"gmail.com", "outlook.com", "yahoo.com", "proton.me", "example.com"};
+
+    private final ContactBulkWriter contactBulkWriter;
+    private final ContactRepo contactRepo;
+    private final UserRepo userRepo;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final int users;
+    private final long contacts;
+    private final String distribution;
+    private final double skew;
+    private final int maxEmails;
+    private final int maxPhones;
+    private final long randomSeed;
+    private final int threads;
+    private final int chunkSize;
+    private final String password;
+
+    @Autowired
+    public DataSeeder(ContactBulkWriter contactBulkWriter,
+                      ContactRepo contactRepo,
+                      UserRepo userRepo,
+                      PasswordEncoder passwordEncoder,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${seed.users:1000}") int users,
+                      @Value("${seed.contacts:100000}") long contacts,
+                      @Value("${seed.distribution:zipf}") String distribution,
+                      @Value("${seed.skew:1.0}") double skew,
+                      @Value("${seed.max-emails:3}") int maxEmails,
+                      @Value("${seed.max-phones:2}") int maxPhones,
+                      @Value("${seed.random-seed:42}") long randomSeed,
+                      @Value("${seed.threads:4}") int threads,
+                      @Value("${seed.chunk-size:1000}") int chunkSize,
+                      @Value("${seed.password:seed-password}") String password) {
+        if (!"zipf".equals(distribution) && !"uniform".equals(distribution)) {
+            throw new IllegalArgumentException("seed.distribution must be zipf or uniform, was " + distribution);
+        }
+        this.contactBulkWriter = contactBulkWriter;
+        this.contactRepo = contactRepo;
+        this.userRepo = userRepo;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.users = users;
+        this.contacts = contacts;
+        this.distribution = distribution;
+        this.skew = skew;
+        this.maxEmails = maxEmails;
+        this.maxPhones = maxPhones;
+        this.randomSeed = randomSeed;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.password = password;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        long[] sizes = addressBookSizes();
+        LocalDateTime now = LocalDateTime.now();
+        String passwordHash = passwordEncoder.encode(password);
+
+        List<User> seededUsers = new ArrayList<>(users);
+        for (int n = 0; n < users; n++) {
+            seededUsers.add(user(n, passwordHash, now));
+        }
+        // a previous run may have stopped between two chunks, so each chunk only inserts the users it is missing
+        int present = 0;
+        for (int from = 0; from < users; from += chunkSize) {
+            List<User> chunk = seededUsers.subList(from, Math.min(users, from + chunkSize));
+            Set<String> existing = userRepo.findEmailsByEmailIn(chunk.stream().map(User::getEmail).toList());
+            List<User> missing = chunk.stream().filter(user -> !existing.contains(user.getEmail())).toList();
+            if (!missing.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> contactBulkWriter.insertUsers(missing));
+            }
+            present += existing.size();
+        }
+        if (present > 0) {
+            log.info("{} seed users already present, completing unfinished address books", present);
+        }
+
+        AtomicLong written = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            // largest books first, then whichever worker is free takes the next user
+            AtomicInteger next = new AtomicInteger();
+            for (int worker = 0; worker < threads; worker++) {
+                futures.add(executor.submit(() -> {
+                    for (int n = next.getAndIncrement(); n < users; n = next.getAndIncrement()) {
+                        seedContacts(seededUsers.get(n), n, sizes[n], now, written);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Seed complete for {} users, {} contacts written ({} distribution, seed {}) in {} ms", users, written.get(),
+                distribution, randomSeed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Splits {@code seed.contacts} over the users; the rounding remainder goes to the largest books first.
+     */
+    long[] addressBookSizes() {
+        double[] weights = new double[users];
+        double total = 0;
+        for (int n = 0; n < users; n++) {
+            weights[n] = "zipf".equals(distribution) ? 1 / Math.pow(n + 1, skew) : 1;
+            total += weights[n];
+        }
+        long[] sizes = new long[users];
+        long assigned = 0;
+        for (int n = 0; n < users; n++) {
+            sizes[n] = (long) Math.floor(contacts * weights[n] / total);
+            assigned += sizes[n];
+        }
+        for (int n = 0; assigned < contacts; n = (n + 1) % users) {
+            sizes[n]++;
+            assigned++;
+        }
+        return sizes;
+    }
+
+    private void seedContacts(User user, int n, long size, LocalDateTime now, AtomicLong written) {
+        UUID userId = user.getId();
+        if (size == 0 || userRepo.findContactsVersionById(userId).orElse(0L) > 0) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> contactRepo.deleteContactsByUserId(userId));
+        Random random = random(n);
+        for (long from = 0; from < size; from += chunkSize) {
+            int count = (int) Math.min(chunkSize, size - from);
+            boolean last = from + count == size;
+            List<Contact> chunk = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                chunk.add(contact(random, now));
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                contactBulkWriter.insert(userId, chunk);
+                if (last) {
+                    userRepo.incrementContactsVersion(userId);
+                }
+            });
+            written.addAndGet(count);
+        }
+    }
+
+    private User user(int n, String passwordHash, LocalDateTime now) {
+        Random random = new Random(randomSeed * 31 - n - 1);
+        return User.builder()
+                .id(uuid(random))
+                .version(0L)
+                .contactsVersion(0)
+                .email(email(n))
+                .password(passwordHash)
+                .firstName(pick(random, FIRST_NAMES))
+                .lastName(pick(random, LAST_NAMES))
+                .createdTime(now)
+                .build();
+    }
+
+    /**
+     * The contacts of user {@code n}, in insertion order; exposed for tests checking that runs repeat.
+     */
+    List<Contact> contacts(int n, long size) {
+        Random random = random(n);
+        List<Contact> generated = new ArrayList<>();
+        for (long i = 0; i < size; i++) {
+            generated.add(contact(random, LocalDateTime.MIN));
+        }
+        return generated;
+    }
+
+    private Random random(int n) {
+        return new Random(randomSeed * 31 + n);
+    }
+
+    private Contact contact(Random random, LocalDateTime now) {
+        String firstName = pick(random, FIRST_NAMES);
+        String lastName = random.nextInt(10) == 0 ? null : pick(random, LAST_NAMES);
+        Contact contact = Contact.builder()
+                .id(uuid(random))
+                .version(0L)
+                .title(random.nextInt(4) == 0 ? pick(random, TITLES) : null)
+                .firstName(firstName)
+                .lastName(lastName)
+                .changeVersion(1)
+                .updatedAt(now)
+                .emails(new ArrayList<>())
+                .phones(new ArrayList<>())
+                .build();
+        int emails = random.nextInt(maxEmails + 1);
+        for (int i = 0; i < emails; i++) {
+            String local = (firstName + "." + (lastName == null ? "" : lastName)).toLowerCase(Locale.ROOT);
+            contact.getEmails().add(ContactEmail.builder()
+                    .id(uuid(random))
+                    .contact(contact)
+                    .emailType(pick(random, EmailType.values()))
+                    .emailValue(local + random.nextInt(1000) + "@" + pick(random, DOMAINS))
+                    .build());
+        }
+        int phones = random.nextInt(maxPhones + 1);
+        for (int i = 0; i < phones; i++) {
+            contact.getPhones().add(ContactPhone.builder()
+                    .id(uuid(random))
+                    .contact(contact)
+                    .phoneType(pick(random, PhoneType.values()))
+                    .phoneValue(String.format("+1%03d%07d", 200 + random.nextInt(800), random.nextInt(10_000_000)))
+                    .build());
+        }
+        return contact;
+    }
+
+    public static String email(int n) {
+        return "seed-" + n + EMAIL_DOMAIN;
+    }
+
+    /**
+     * A version 4 UUID drawn from {@code random} rather than {@code SecureRandom}, so it repeats with the seed.
+     */
+    private static UUID uuid(Random random) {
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(most, least);
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
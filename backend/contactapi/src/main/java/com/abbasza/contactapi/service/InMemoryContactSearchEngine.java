@@ -0,0 +1,42 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactResponseDto;
+import com.abbasza.contactapi.model.Contact;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fallback engine for databases without full-text support (H2 in the dev profile).
+ * Matches first and last names through the in-memory {@link ContactSearchIndex}.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "contact.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryContactSearchEngine implements ContactSearchEngine {
+    private final ContactSearchIndex contactSearchIndex;
+
+    @Override
+    public List<ContactResponseDto> search(UUID userId, String query, Pageable pageable) {
+        return contactSearchIndex.search(userId, query, (int) pageable.getOffset(), pageable.getPageSize());
+    }
+
+    @Override
+    public void onContactSaved(UUID userId, Contact contact) {
+        contactSearchIndex.onContactSaved(userId, contact);
+    }
+
+    @Override
+    public void onContactDeleted(UUID userId, UUID contactId) {
+        contactSearchIndex.onContactDeleted(userId, contactId);
+    }
+
+    @Override
+    public void onUserDeleted(UUID userId) {
+        contactSearchIndex.onUserDeleted(userId);
+    }
+}
@@ -0,0 +1,57 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactResponseDto;
+import com.abbasza.contactapi.repository.ContactRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ranked search over names, title, emails and phones using the {@code search_vector} column and
+ * the pg_trgm indexes created by {@code schema.sql}. A blank query lists the address book in name order,
+ * as the in-memory engine does, without running the search.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "contact.search.engine", havingValue = "postgres")
+public class PostgresContactSearchEngine implements ContactSearchEngine {
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private final ContactRepo contactRepo;
+
+    @Override
+    public List<ContactResponseDto> search(UUID userId, String query, Pageable pageable) {
+        String term = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty()) {
+            return contactRepo.findFirstContactSummariesByUserId(userId,
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        }
+        return contactRepo.searchContactsRanked(userId, toPrefixQuery(term), toLikePattern(term), term,
+                pageable.getPageSize(), pageable.getOffset());
+    }
+
+    static String toPrefixQuery(String term) {
+        StringBuilder tsQuery = new StringBuilder();
+        Matcher words = WORD.matcher(term);
+        while (words.find()) {
+            if (!tsQuery.isEmpty()) {
+                tsQuery.append(" & ");
+            }
+            tsQuery.append(words.group()).append(":*");
+        }
+        return tsQuery.toString();
+    }
+
+    static String toLikePattern(String term) {
+        String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
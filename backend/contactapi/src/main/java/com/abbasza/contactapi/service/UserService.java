@@ -4,15 +4,19 @@ import com.abbasza.contactapi.dto.ChangePassRequestDto;
 import com.abbasza.contactapi.dto.GetSelfResponseDto;
 import com.abbasza.contactapi.dto.UpdateUserRequestDto;
 import com.abbasza.contactapi.dto.UpdateUserResponseDto;
+import com.abbasza.contactapi.mapper.UserMapper;
 import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.repository.ContactCache;
 import com.abbasza.contactapi.repository.UserRepo;
+import com.abbasza.contactapi.security.PrincipalCache;
+import com.abbasza.contactapi.security.RefreshTokenService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.security.auth.message.AuthException;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -20,6 +24,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @Transactional(rollbackOn = Exception.class)
@@ -27,19 +33,29 @@ import java.util.Optional;
 public class UserService {
     private final UserRepo userRepo;
     private final PasswordEncoder passwordEncoder;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
+    private final PrincipalCache principalCache;
+    private final RefreshTokenService refreshTokenService;
+    private final ContactCache contactCache;
+    private final ContactSearchEngine contactSearchEngine;
 
     @Autowired
-    public UserService(UserRepo userRepo, PasswordEncoder passwordEncoder, ModelMapper modelMapper) {
+    public UserService(UserRepo userRepo, PasswordEncoder passwordEncoder, UserMapper userMapper, PrincipalCache principalCache,
+                       RefreshTokenService refreshTokenService, ContactCache contactCache,
+                       ContactSearchEngine contactSearchEngine) {
         this.userRepo = userRepo;
         this.passwordEncoder = passwordEncoder;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
+        this.principalCache = principalCache;
+        this.refreshTokenService = refreshTokenService;
+        this.contactCache = contactCache;
+        this.contactSearchEngine = contactSearchEngine;
     }
 
     @PreAuthorize("#username == authentication.principal.username")
     public GetSelfResponseDto getUser(String username) {
         User user = findUserByUsername(username);
-        return modelMapper.map(user, GetSelfResponseDto.class);
+        return userMapper.toGetSelfResponse(user);
     }
 
     @PreAuthorize("#username == authentication.principal.username")
@@ -54,27 +70,38 @@ public class UserService {
             userInDB.setFirstName((updateUserRequestDto.getFirstname() != null && !updateUserRequestDto.getFirstname().isEmpty()) ? updateUserRequestDto.getFirstname() : userInDB.getFirstName());
             userInDB.setLastName((updateUserRequestDto.getLastname() != null && !updateUserRequestDto.getLastname().isEmpty()) ? updateUserRequestDto.getLastname() : userInDB.getLastName());
 
-            return modelMapper.map(userRepo.save(userInDB), UpdateUserResponseDto.class);
+            principalCache.invalidate(userInDB.getId());
+            return userMapper.toUpdateUserResponse(userRepo.save(userInDB));
+        } catch (OptimisticLockingFailureException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error occured while updating USER: {}", username);
             throw new IllegalArgumentException(e);
         }
     }
 
+    /**
+     * Runs without a surrounding transaction so no connection is held while the password hashing pool works;
+     * the old password is verified before the new one is hashed and the save commits on its own.
+     */
     @PreAuthorize("#username == authentication.principal.username")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public boolean changePassword(String username, ChangePassRequestDto changePassRequestDto) throws AuthException {
         try {
             log.info("Changing Passowrd for USER: {}", username);
             User userInDB = findUserByUsername(username);
             String oldPassInDB = userInDB.getPassword();
-            String newPassHash = passwordEncoder.encode(changePassRequestDto.getNewpassword());
             if (passwordEncoder.matches(changePassRequestDto.getOldpassword(), oldPassInDB)) {
-                userInDB.setPassword(newPassHash);
+                userInDB.setPassword(passwordEncoder.encode(changePassRequestDto.getNewpassword()));
                 userRepo.save(userInDB);
+                refreshTokenService.revokeAll(userInDB.getId());
+                principalCache.invalidate(userInDB.getId());
                 return true;
             } else {
                 throw new AuthException("Incorrect Password");
             }
+        } catch (RejectedExecutionException | OptimisticLockingFailureException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Incorrect Password for USER: {}", username);
             throw new AuthException(e);
@@ -87,12 +114,40 @@ public class UserService {
             log.info("Deleting USER: {}", username);
             User user = findUserByUsername(username);
             userRepo.deleteById(user.getId());
+            principalCache.invalidate(user.getId());
+            // the user's contacts go with the database's ON DELETE CASCADE, which Hibernate does not see
+            contactCache.evictAll();
+            contactSearchEngine.onUserDeleted(user.getId());
         } catch (Exception e) {
             log.error("Error occured while deleting USER: {}", username);
             throw new EntityNotFoundException(e);
         }
     }
 
+    @PreAuthorize("#userId == authentication.principal.id")
+    public Optional<Long> getUserVersion(UUID userId) {
+        return userRepo.findVersionById(userId);
+    }
+
+    public long getContactsVersion(UUID userId) {
+        return userRepo.findContactsVersionById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User Not Found " + userId));
+    }
+
+    /**
+     * Marks the user's contact list as changed, so list ETags handed out earlier stop matching, and returns the new
+     * version for stamping the changed contacts. The bump row-locks the user until commit, so a user's contact writes
+     * take versions in commit order.
+     */
+    public long incrementContactsVersion(UUID userId) {
+        userRepo.incrementContactsVersion(userId);
+        return getContactsVersion(userId);
+    }
+
+    public User getUserReference(UUID userId) {
+        return userRepo.getReferenceById(userId);
+    }
+
     public User findUserByUsername(String username) {
         Optional<User> user = userRepo.findUserByEmail(username);
         if (user.isEmpty()) {
@@ -1,3 +1,9 @@
+--
+-- Name: pg_trgm; Type: EXTENSION; Schema: public; Owner: root
+--
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 --
 -- Name: app_user; Type: TABLE; Schema: public; Owner: root
 --
@@ -29,6 +35,16 @@ CREATE TABLE IF NOT EXISTS app_user
 
 CREATE INDEX IF NOT EXISTS idx_email ON app_user USING btree (email);
 
+-- Name: version, contacts_version; Type: COLUMN; Schema: public; Owner: root
+-- Profile version and contact-list version, both served as ETags
+--
+
+ALTER TABLE app_user
+    ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+ALTER TABLE app_user
+    ADD COLUMN IF NOT EXISTS contacts_version bigint NOT NULL DEFAULT 0;
+
 -- ALTER TABLE app_user
 --     ADD COLUMN IF NOT EXISTS login_count INT GENERATED ALWAYS AS (
 --     (email IS NOT NULL)::int + (phone IS NOT NULL)::int
@@ -59,6 +75,49 @@ CREATE TABLE IF NOT EXISTS contacts
 
 CREATE INDEX IF NOT EXISTS idx_firstname_lastname ON contacts USING btree (first_name, last_name);
 
+-- Name: idx_contacts_user_keyset; Type: INDEX; Schema: public; Owner: root
+-- Serves keyset listing: WHERE user_id = ? ORDER BY first_name, last_name NULLS LAST, id
+--
+
+CREATE INDEX IF NOT EXISTS idx_contacts_user_keyset ON contacts USING btree (user_id, first_name, last_name, id);
+
+-- Name: version; Type: COLUMN; Schema: public; Owner: root
+-- Optimistic lock for concurrent contact edits
+--
+
+ALTER TABLE contacts
+    ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+-- Name: change_version, updated_at; Type: COLUMN; Schema: public; Owner: root
+-- Owner's contacts_version at the last write, the watermark served by /contact/changes
+--
+
+ALTER TABLE contacts
+    ADD COLUMN IF NOT EXISTS change_version bigint NOT NULL DEFAULT 0;
+
+ALTER TABLE contacts
+    ADD COLUMN IF NOT EXISTS updated_at timestamp(6) without time zone;
+
+-- Name: idx_contacts_user_change; Type: INDEX; Schema: public; Owner: root
+-- Serves change feeds: WHERE user_id = ? AND change_version > ? ORDER BY change_version, id
+--
+
+CREATE INDEX IF NOT EXISTS idx_contacts_user_change ON contacts USING btree (user_id, change_version, id);
+
+-- Name: search_vector; Type: COLUMN; Schema: public; Owner: root
+-- Weighted document for full-text search: names (A), title (B)
+--
+
+ALTER TABLE contacts
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(first_name, '') || ' ' || coalesce(last_name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(title, '')), 'B')
+        ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_contacts_search_vector ON contacts USING gin (search_vector);
+CREATE INDEX IF NOT EXISTS idx_firstname_trgm ON contacts USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_lastname_trgm ON contacts USING gin (lower(last_name) gin_trgm_ops);
+
 
 --
 -- Name: contact_email; Type: TABLE; Schema: public; Owner: root
@@ -76,6 +135,13 @@ CREATE TABLE IF NOT EXISTS contact_email
 
 CREATE INDEX IF NOT EXISTS idx_email_type ON contact_email USING btree (email_type);
 CREATE INDEX IF NOT EXISTS idx_email_value ON contact_email USING btree (email_value);
+CREATE INDEX IF NOT EXISTS idx_email_value_trgm ON contact_email USING gin (lower(email_value) gin_trgm_ops);
+
+-- Name: idx_email_contact; Type: INDEX; Schema: public; Owner: root
+-- Serves loading a contact's emails and the ON DELETE CASCADE from contacts
+--
+
+CREATE INDEX IF NOT EXISTS idx_email_contact ON contact_email USING btree (contact_id);
 
 -- Name: contact_phone; Type: TABLE; Schema: public; Owner: root
 --
@@ -92,6 +158,48 @@ CREATE TABLE IF NOT EXISTS contact_phone
 
 CREATE INDEX IF NOT EXISTS idx_phone_type ON contact_phone USING btree (phone_type);
 CREATE INDEX IF NOT EXISTS idx_phone_value ON contact_phone USING btree (phone_value);
+CREATE INDEX IF NOT EXISTS idx_phone_value_trgm ON contact_phone USING gin (phone_value gin_trgm_ops);
+
+-- Name: idx_phone_contact; Type: INDEX; Schema: public; Owner: root
+-- Serves loading a contact's phones and the ON DELETE CASCADE from contacts
+--
+
+CREATE INDEX IF NOT EXISTS idx_phone_contact ON contact_phone USING btree (contact_id);
+
+-- Name: refresh_token; Type: TABLE; Schema: public; Owner: root
+-- Only the SHA-256 of each opaque token is stored; tokens rotate within a family
+--
+
+CREATE TABLE IF NOT EXISTS refresh_token
+(
+    id           uuid                           NOT NULL PRIMARY KEY,
+    user_id      uuid                           NOT NULL REFERENCES app_user (id) ON DELETE CASCADE,
+    family_id    uuid                           NOT NULL,
+    token_hash   character varying(64)          NOT NULL,
+    created_time timestamp(6) without time zone NOT NULL,
+    expires_at   timestamp(6) without time zone NOT NULL,
+    used_at      timestamp(6) without time zone,
+    revoked      boolean                        NOT NULL DEFAULT false
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_refresh_token_hash ON refresh_token USING btree (token_hash);
+CREATE INDEX IF NOT EXISTS idx_refresh_token_family ON refresh_token USING btree (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_token_user ON refresh_token USING btree (user_id);
+
+-- Name: contact_tombstone; Type: TABLE; Schema: public; Owner: root
+-- Deleted contacts, kept for the lifetime of a sync token (contact.changes.token-ttl)
+--
+
+CREATE TABLE IF NOT EXISTS contact_tombstone
+(
+    contact_id     uuid                           NOT NULL PRIMARY KEY,
+    user_id        uuid                           NOT NULL REFERENCES app_user (id) ON DELETE CASCADE,
+    change_version bigint                         NOT NULL,
+    deleted_at     timestamp(6) without time zone NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_contact_tombstone_user_change ON contact_tombstone USING btree (user_id, change_version, contact_id);
+CREATE INDEX IF NOT EXISTS idx_contact_tombstone_deleted_at ON contact_tombstone USING btree (deleted_at);
 
 
 -- PostgreSQL database dump complete
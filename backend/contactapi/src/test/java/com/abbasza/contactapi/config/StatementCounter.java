@@ -0,0 +1,137 @@
+package com.abbasza.contactapi.config;
+
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Records the JDBC statements issued on the current thread, so tests can hold a request or service call to a
+ * statement budget. Import {@link Config} into a Spring test, call {@link #reset()} right before the code under
+ * test, then assert, e.g. {@code StatementCounter.assertSelects(2)}. A JDBC batch counts once, as one round trip.
+ */
+public final class StatementCounter {
+    private static final ThreadLocal<List<Execution>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    private StatementCounter() {
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return STATEMENTS.get().stream().map(Execution::sql).toList();
+    }
+
+    /**
+     * The recorded statements with the parameters bound on their first execution, e.g. to run them again under
+     * {@code EXPLAIN}.
+     */
+    public static List<Execution> executions() {
+        return List.copyOf(STATEMENTS.get());
+    }
+
+    public static int count(QueryType type) {
+        int count = 0;
+        for (String statement : statements()) {
+            if (QueryUtils.getQueryType(statement) == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void assertSelects(int max) {
+        assertAtMost(max, QueryType.SELECT);
+    }
+
+    public static void assertInserts(int max) {
+        assertAtMost(max, QueryType.INSERT);
+    }
+
+    public static void assertUpdates(int max) {
+        assertAtMost(max, QueryType.UPDATE);
+    }
+
+    public static void assertDeletes(int max) {
+        assertAtMost(max, QueryType.DELETE);
+    }
+
+    public static void assertTotal(int max) {
+        if (STATEMENTS.get().size() > max) {
+            fail("Expected at most " + max + " statements but got " + STATEMENTS.get().size() + describe());
+        }
+    }
+
+    private static void assertAtMost(int max, QueryType type) {
+        int count = count(type);
+        if (count > max) {
+            fail("Expected at most " + max + " " + type + " statements but got " + count + describe());
+        }
+    }
+
+    private static String describe() {
+        StringBuilder description = new StringBuilder(":");
+        for (String statement : statements()) {
+            description.append("\n  ").append(statement);
+        }
+        return description.toString();
+    }
+
+    private static List<Object> parameters(QueryInfo query) {
+        if (query.getParametersList().isEmpty()) {
+            return List.of();
+        }
+        List<ParameterSetOperation> operations = query.getParametersList().get(0);
+        Object[] values = new Object[operations.size()];
+        for (ParameterSetOperation operation : operations) {
+            Object[] args = operation.getArgs();
+            if (args[0] instanceof Integer index && index <= values.length) {
+                values[index - 1] = "setNull".equals(operation.getMethod().getName()) ? null : args[1];
+            }
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * One statement as sent to the driver, with its parameters in order ({@code null} for SQL NULL).
+     */
+    public record Execution(String sql, List<Object> parameters) {
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .afterQuery((execution, queries) -> {
+                                for (QueryInfo query : queries) {
+                                    STATEMENTS.get().add(new Execution(query.getQuery(), parameters(query)));
+                                }
+                            })
+                            .build();
+                }
+            };
+        }
+    }
+}
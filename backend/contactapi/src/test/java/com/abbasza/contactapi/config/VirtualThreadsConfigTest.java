@@ -0,0 +1,21 @@
+package com.abbasza.contactapi.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsConfigTest {
+
+    @Test
+    void requireVirtualThreads_rejectsJava17() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> VirtualThreadsConfig.requireVirtualThreads(17));
+
+        assertTrue(e.getMessage().contains("Java 21"));
+    }
+
+    @Test
+    void requireVirtualThreads_acceptsJava21() {
+        assertDoesNotThrow(() -> VirtualThreadsConfig.requireVirtualThreads(21));
+    }
+}
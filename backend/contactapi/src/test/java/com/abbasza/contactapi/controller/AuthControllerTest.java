@@ -38,7 +38,7 @@ class AuthControllerTest {
     @Test
     void login_shouldReturn200AndToken() throws Exception {
         LoginResponseDto response =
-                new LoginResponseDto(UUID.randomUUID(), "jwt-token");
+                new LoginResponseDto(UUID.randomUUID(), "jwt-token", "refresh-token");
 
         when(authService.login(any())).thenReturn(response);
 
@@ -54,6 +54,21 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.jwt").value("jwt-token"));
     }
 
+    @Test
+    void refresh_shouldReturn200AndRotatedTokens() throws Exception {
+        when(authService.refresh(any()))
+                .thenReturn(new LoginResponseDto(UUID.randomUUID(), "new-jwt", "new-refresh"));
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "refreshToken": "old-refresh" }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jwt").value("new-jwt"))
+                .andExpect(jsonPath("$.refreshToken").value("new-refresh"));
+    }
+
     @Test
     void signup_shouldReturn201() throws Exception {
         SignupResponseDto response =
@@ -0,0 +1,179 @@
+package com.abbasza.contactapi.controller;
+
+import com.abbasza.contactapi.config.StatementCounter;
+import com.abbasza.contactapi.dto.ContactEmailDto;
+import com.abbasza.contactapi.dto.ContactPhoneDto;
+import com.abbasza.contactapi.dto.ContactRequestDto;
+import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+import com.abbasza.contactapi.repository.UserRepo;
+import com.abbasza.contactapi.security.UserPrincipal;
+import com.abbasza.contactapi.service.ContactService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets per request, end to end through the controller against the dev database.
+ */
+@SpringBootTest(properties = {
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("dev")
+@Import(StatementCounter.Config.class)
+class ContactControllerStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    private User user;
+    private List<UUID> ids;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepo.save(User.builder().email(UUID.randomUUID() + "@budget.com").password("x").build());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(user.getId(), user.getEmail()), null, List.of()));
+        ids = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ids.add(contactService.saveContact(user.getId(), request("Contact" + i)).getId());
+        }
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getContact_atMostTwoSelects() throws Exception {
+        StatementCounter.reset();
+        mockMvc.perform(get("/contact/{contactId}", ids.get(0)))
+                .andExpect(status().isOk());
+
+        // contact joined with emails, then phones
+        StatementCounter.assertSelects(2);
+        StatementCounter.assertTotal(2);
+    }
+
+    @Test
+    void getContact_notModifiedReadsOnlyTheVersion() throws Exception {
+        StatementCounter.reset();
+        mockMvc.perform(get("/contact/{contactId}", ids.get(0)).header("If-None-Match", "\"" + ids.get(0) + ".0\""))
+                .andExpect(status().isNotModified());
+
+        StatementCounter.assertTotal(1);
+    }
+
+    @Test
+    void getAllContacts_threeSelectsWhateverThePageSize() throws Exception {
+        StatementCounter.reset();
+        mockMvc.perform(get("/contact").param("size", "10"))
+                .andExpect(status().isOk());
+
+        // contact-list version, page, count
+        StatementCounter.assertSelects(3);
+        StatementCounter.assertTotal(3);
+    }
+
+    @Test
+    void getContactsAfter_twoSelects() throws Exception {
+        StatementCounter.reset();
+        mockMvc.perform(get("/contact").param("cursor", "").param("size", "10"))
+                .andExpect(status().isOk());
+
+        // contact-list version, slice
+        StatementCounter.assertTotal(2);
+    }
+
+    @Test
+    void getContactDetails_threeSelectsForAnyNumberOfIds() throws Exception {
+        StatementCounter.reset();
+        mockMvc.perform(post("/contact/details")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk());
+
+        // contacts, then one subselect each for emails and phones
+        StatementCounter.assertTotal(3);
+    }
+
+    @Test
+    void getChanges_fiveSelectsPerPage() throws Exception {
+        StatementCounter.reset();
+        mockMvc.perform(get("/contact/changes").param("size", "5"))
+                .andExpect(status().isOk());
+
+        // contact-list version, changed ids, contacts, emails, phones
+        StatementCounter.assertSelects(5);
+        StatementCounter.assertTotal(5);
+    }
+
+    @Test
+    void createContact_oneSelectOneUpdateAndOneInsertPerTable() throws Exception {
+        StatementCounter.reset();
+        mockMvc.perform(post("/contact")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("New"))))
+                .andExpect(status().isCreated());
+
+        StatementCounter.assertSelects(1);
+        StatementCounter.assertUpdates(1);
+        StatementCounter.assertInserts(3);
+        StatementCounter.assertTotal(5);
+    }
+
+    @Test
+    void deleteContact_fiveStatements() throws Exception {
+        StatementCounter.reset();
+        mockMvc.perform(delete("/contact/{contactId}", ids.get(0)))
+                .andExpect(status().is2xxSuccessful());
+
+        StatementCounter.assertSelects(2);
+        StatementCounter.assertTotal(5);
+    }
+
+    private static ContactRequestDto request(String firstname) {
+        ContactEmailDto email = new ContactEmailDto();
+        email.setEmailtype(EmailType.WORK);
+        email.setEmailvalue(firstname.toLowerCase() + "@work.com");
+        ContactPhoneDto phone = new ContactPhoneDto();
+        phone.setPhonetype(PhoneType.PERSONAL);
+        phone.setPhonevalue("555-0100");
+        ContactRequestDto request = new ContactRequestDto();
+        request.setFirstname(firstname);
+        request.setEmails(new ArrayList<>(List.of(email)));
+        request.setPhones(new ArrayList<>(List.of(phone)));
+        return request;
+    }
+}
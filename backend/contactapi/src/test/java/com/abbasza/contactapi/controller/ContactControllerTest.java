@@ -1,9 +1,21 @@
 package com.abbasza.contactapi.controller;
 
+import com.abbasza.contactapi.dto.ContactBatchResultDto;
+import com.abbasza.contactapi.dto.ContactChangesResponseDto;
 import com.abbasza.contactapi.dto.ContactDetailResponseDto;
+import com.abbasza.contactapi.dto.ContactImportJobDto;
 import com.abbasza.contactapi.dto.ContactRequestDto;
 import com.abbasza.contactapi.dto.ContactResponseDto;
+import com.abbasza.contactapi.dto.ContactSliceResponseDto;
+import com.abbasza.contactapi.error.BadRequestException;
 import com.abbasza.contactapi.security.JwtAuthFilter;
+import com.abbasza.contactapi.security.UserPrincipal;
+import com.abbasza.contactapi.service.ContactChangeService;
+import com.abbasza.contactapi.service.ContactChangeToken;
+import com.abbasza.contactapi.service.ContactCursor;
+import com.abbasza.contactapi.service.ContactExportFormat;
+import com.abbasza.contactapi.service.ContactExportService;
+import com.abbasza.contactapi.service.ContactImportService;
 import com.abbasza.contactapi.service.ContactService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,17 +26,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,16 +58,23 @@ class ContactControllerTest {
     @MockBean
     private ContactService contactService;
     @MockBean
+    private ContactExportService contactExportService;
+    @MockBean
+    private ContactImportService contactImportService;
+    @MockBean
+    private ContactChangeService contactChangeService;
+    @MockBean
     private JwtAuthFilter jwtAuthFilter;
 
     @Autowired
     private ObjectMapper objectMapper;
 
     private static final String USERNAME = "test@email.com";
+    private static final UUID USER_ID = UUID.randomUUID();
 
     @BeforeEach
     void setupSecurityContext() {
-        Authentication auth = new UsernamePasswordAuthenticationToken(USERNAME, null, List.of());
+        Authentication auth = new UsernamePasswordAuthenticationToken(new UserPrincipal(USER_ID, USERNAME), null, List.of());
         SecurityContextHolder.getContext().setAuthentication(auth);
     }
 
@@ -61,11 +87,62 @@ class ContactControllerTest {
         Page<ContactResponseDto> page =
                 new PageImpl<>(List.of(dto));
 
-        when(contactService.getAllContacts(USERNAME, 0, 10)).thenReturn(page);
+        when(contactService.getAllContacts(USER_ID, 0, 10)).thenReturn(page);
+
+        mockMvc.perform(get("/contact"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.v").value(1))
+                .andExpect(jsonPath("$.content[0].firstname").value("John"))
+                .andExpect(jsonPath("$.content[0].title").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+    }
+
+    @Test
+    void getAllContacts_shouldTagPageWithContactsVersion() throws Exception {
+        when(contactService.getContactsVersion(USER_ID)).thenReturn(7L);
+        when(contactService.getAllContacts(USER_ID, 0, 10)).thenReturn(new PageImpl<>(List.of()));
 
         mockMvc.perform(get("/contact"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].firstname").value("John"));
+                .andExpect(header().string("ETag", "\"" + USER_ID + ".7\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+    }
+
+    @Test
+    void getAllContacts_shouldReturnNotModifiedWithoutLoadingPage() throws Exception {
+        when(contactService.getContactsVersion(USER_ID)).thenReturn(7L);
+
+        mockMvc.perform(get("/contact").header("If-None-Match", "\"" + USER_ID + ".7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"" + USER_ID + ".7\""))
+                .andExpect(content().string(""));
+
+        verify(contactService, never()).getAllContacts(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getContactsAfter_shouldReturnSliceWhenCursorGiven() throws Exception {
+        ContactResponseDto dto = new ContactResponseDto();
+        dto.setFirstname("John");
+
+        when(contactService.getContactsAfter(USER_ID, "", 10))
+                .thenReturn(new ContactSliceResponseDto(List.of(dto), "next-token", true));
+
+        mockMvc.perform(get("/contact").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].firstname").value("John"))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getContactsAfter_garbageCursor_returnsBadRequest() throws Exception {
+        when(contactService.getContactsAfter(USER_ID, "not-a-cursor", 10))
+                .thenAnswer(invocation -> ContactCursor.decode(invocation.getArgument(1)));
+
+        mockMvc.perform(get("/contact").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -73,7 +150,7 @@ class ContactControllerTest {
         ContactResponseDto dto = new ContactResponseDto();
         dto.setFirstname("Jane");
 
-        when(contactService.getSearchContacts(USERNAME, "ja"))
+        when(contactService.getSearchContacts(USER_ID, "ja", 0, 10))
                 .thenReturn(List.of(dto));
 
         mockMvc.perform(get("/contact/s").param("query", "ja"))
@@ -81,23 +158,156 @@ class ContactControllerTest {
                 .andExpect(jsonPath("$[0].firstname").value("Jane"));
     }
 
+    @Test
+    void exportContacts_shouldStreamAttachmentInRequestedFormat() throws Exception {
+        mockMvc.perform(get("/contact/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"contacts.csv\""));
+
+        verify(contactExportService).export(eq(USER_ID), eq(ContactExportFormat.CSV), any());
+    }
+
+    @Test
+    void exportContacts_unknownFormat_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/contact/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verify(contactExportService, never()).export(any(), any(), any());
+    }
+
+    @Test
+    void importContacts_shouldAcceptUploadAndPointToJob() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        ContactImportJobDto job = new ContactImportJobDto();
+        job.setJobId(jobId);
+        MockMultipartFile file = new MockMultipartFile("file", "contacts.csv", "text/csv", "firstname\nA\n".getBytes());
+
+        when(contactImportService.submit(eq(USER_ID), any(), eq("csv"))).thenReturn(job);
+
+        mockMvc.perform(multipart("/contact/import").file(file).param("format", "csv"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/contact/import/" + jobId))
+                .andExpect(jsonPath("$.jobId").value(jobId.toString()));
+    }
+
+    @Test
+    void getImportJob_shouldReturnNotFoundForUnknownJob() throws Exception {
+        UUID jobId = UUID.randomUUID();
+
+        when(contactImportService.getJob(USER_ID, jobId)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/contact/import/{jobId}", jobId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getChanges_shouldReturnDeltaForToken() throws Exception {
+        ContactDetailResponseDto changed = new ContactDetailResponseDto();
+        changed.setId(UUID.randomUUID());
+        UUID deleted = UUID.randomUUID();
+
+        when(contactChangeService.getChanges(USER_ID, "token", 100))
+                .thenReturn(Optional.of(new ContactChangesResponseDto(List.of(changed), List.of(deleted), "next", false)));
+
+        mockMvc.perform(get("/contact/changes").param("since", "token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].id").value(changed.getId().toString()))
+                .andExpect(jsonPath("$.deleted[0]").value(deleted.toString()))
+                .andExpect(jsonPath("$.nextToken").value("next"));
+    }
+
+    @Test
+    void getChanges_expiredToken_returnsGone() throws Exception {
+        when(contactChangeService.getChanges(USER_ID, "old", 100)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/contact/changes").param("since", "old"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void getChanges_garbageToken_returnsBadRequest() throws Exception {
+        when(contactChangeService.getChanges(USER_ID, "not-a-token", 100))
+                .thenAnswer(invocation -> {
+                    ContactChangeToken.decode(invocation.getArgument(1));
+                    return Optional.empty();
+                });
+
+        mockMvc.perform(get("/contact/changes").param("since", "not-a-token"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getContact_shouldReturnContact() throws Exception {
         UUID id = UUID.randomUUID();
         ContactDetailResponseDto dto = new ContactDetailResponseDto();
         dto.setId(id);
 
-        when(contactService.getContact(USERNAME, id)).thenReturn(dto);
+        when(contactService.getContact(USER_ID, id)).thenReturn(dto);
 
         mockMvc.perform(get("/contact/{id}", id))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(id.toString()));
     }
 
+    @Test
+    void getContact_shouldReturnNotModifiedFromVersionAlone() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        when(contactService.getContactVersion(USER_ID, id)).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/contact/{id}", id).header("If-None-Match", "W/\"other\", \"" + id + ".3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"" + id + ".3\""));
+
+        verify(contactService, never()).getContact(any(), any());
+    }
+
+    @Test
+    void getContact_shouldReturnTaggedContactWhenVersionChanged() throws Exception {
+        UUID id = UUID.randomUUID();
+        ContactDetailResponseDto dto = new ContactDetailResponseDto();
+        dto.setId(id);
+        dto.setVersion(4L);
+
+        when(contactService.getContactVersion(USER_ID, id)).thenReturn(Optional.of(4L));
+        when(contactService.getContact(USER_ID, id)).thenReturn(dto);
+
+        mockMvc.perform(get("/contact/{id}", id).header("If-None-Match", "\"" + id + ".3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + id + ".4\""))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    void getContact_conditionalForUnknownContact_returnsNotFound() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        when(contactService.getContactVersion(USER_ID, id)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/contact/{id}", id).header("If-None-Match", "\"" + id + ".3\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getContacts_shouldReturnDetailsForIds() throws Exception {
+        UUID id = UUID.randomUUID();
+        ContactDetailResponseDto dto = new ContactDetailResponseDto();
+        dto.setId(id);
+
+        when(contactService.getContacts(USER_ID, List.of(id))).thenReturn(List.of(dto));
+
+        mockMvc.perform(post("/contact/details")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(id))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id.toString()));
+    }
+
     @Test
     void getContact_notFound() throws Exception {
         UUID id = UUID.randomUUID();
-        when(contactService.getContact(USERNAME, id))
+        when(contactService.getContact(USER_ID, id))
                 .thenThrow(IllegalArgumentException.class);
 
         mockMvc.perform(get("/contact/{id}", id))
@@ -113,7 +323,7 @@ class ContactControllerTest {
         UUID id = UUID.randomUUID();
         res.setId(id);
 
-        when(contactService.saveContact(eq(USERNAME), any()))
+        when(contactService.saveContact(eq(USER_ID), any()))
                 .thenReturn(res);
 
         mockMvc.perform(post("/contact")
@@ -123,10 +333,40 @@ class ContactControllerTest {
                 .andExpect(header().string("Location", "/contact/" + id));
     }
 
+    @Test
+    void createContacts_shouldReturnPerItemResults() throws Exception {
+        ContactRequestDto req = new ContactRequestDto();
+        req.setFirstname("John");
+        UUID id = UUID.randomUUID();
+
+        when(contactService.saveContacts(eq(USER_ID), any()))
+                .thenReturn(List.of(new ContactBatchResultDto(0, id, HttpStatus.CREATED, null),
+                        new ContactBatchResultDto(1, null, HttpStatus.BAD_REQUEST, "firstname is required")));
+
+        mockMvc.perform(post("/contact/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(req, new ContactRequestDto()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id.toString()))
+                .andExpect(jsonPath("$[1].status").value("BAD_REQUEST"));
+    }
+
+    @Test
+    void createContacts_oversizedBatch_returnsBadRequest() throws Exception {
+        when(contactService.saveContacts(eq(USER_ID), any()))
+                .thenThrow(new BadRequestException("Batch must contain between 1 and 1000 Contacts"));
+
+        mockMvc.perform(post("/contact/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Collections.nCopies(1001, new ContactRequestDto()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.statusCode").value("BAD_REQUEST"));
+    }
+
     @Test
     void deleteContact_success() throws Exception {
         UUID id = UUID.randomUUID();
-        when(contactService.deleteContactById(USERNAME, id)).thenReturn(true);
+        when(contactService.deleteContactById(USER_ID, id)).thenReturn(true);
 
         mockMvc.perform(delete("/contact/{id}", id))
                 .andExpect(status().isNoContent());
@@ -135,7 +375,7 @@ class ContactControllerTest {
     @Test
     void deleteContact_notFound() throws Exception {
         UUID id = UUID.randomUUID();
-        when(contactService.deleteContactById(USERNAME, id)).thenReturn(false);
+        when(contactService.deleteContactById(USER_ID, id)).thenReturn(false);
 
         mockMvc.perform(delete("/contact/{id}", id))
                 .andExpect(status().isNotFound());
@@ -3,6 +3,7 @@ package com.abbasza.contactapi.controller;
 import com.abbasza.contactapi.dto.GetSelfResponseDto;
 import com.abbasza.contactapi.dto.UpdateUserResponseDto;
 import com.abbasza.contactapi.security.JwtAuthFilter;
+import com.abbasza.contactapi.security.UserPrincipal;
 import com.abbasza.contactapi.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -11,13 +12,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -45,6 +55,38 @@ class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getSelf_shouldReturnNotModifiedFromVersionAlone() throws Exception {
+        UUID userId = UUID.randomUUID();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(userId, "user@mail.com"), null, List.of()));
+        when(userService.getUserVersion(userId)).thenReturn(Optional.of(2L));
+
+        try {
+            mockMvc.perform(get("/user").header("If-None-Match", "\"" + userId + ".2\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "\"" + userId + ".2\""));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        verify(userService, never()).getUser(any());
+    }
+
+    @Test
+    @WithMockUser(username = "user@mail.com")
+    void getSelf_shouldTagResponseWithUserVersion() throws Exception {
+        UUID userId = UUID.randomUUID();
+        GetSelfResponseDto self = new GetSelfResponseDto();
+        self.setId(userId);
+        self.setVersion(5L);
+        when(userService.getUser("user@mail.com")).thenReturn(self);
+
+        mockMvc.perform(get("/user"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + userId + ".5\""));
+    }
+
     @Test
     @WithMockUser(username = "user@mail.com")
     void updateSelf_shouldReturn200() throws Exception {
@@ -0,0 +1,68 @@
+package com.abbasza.contactapi.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactPageSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void serialize_writesEnvelopeAndOmitsNullFields() throws Exception {
+        UUID id = UUID.randomUUID();
+        ContactPageResponseDto page = new ContactPageResponseDto(
+                List.of(new ContactResponseDto(id, null, "John", "")), 2, 10, 21, 3);
+
+        String json = objectMapper.writeValueAsString(page);
+
+        assertEquals("{\"v\":1,\"content\":[{\"id\":\"" + id + "\",\"firstname\":\"John\",\"lastname\":\"\"}],"
+                + "\"page\":2,\"size\":10,\"totalElements\":21,\"totalPages\":3}", json);
+    }
+
+    @Test
+    void serialize_escapesText() throws Exception {
+        ContactPageResponseDto page = new ContactPageResponseDto(
+                List.of(new ContactResponseDto(UUID.randomUUID(), "Dr. \"Q\"", "Zoë\n", null)), 0, 1, 1, 1);
+
+        JsonNode contact = objectMapper.readTree(objectMapper.writeValueAsString(page)).get("content").get(0);
+
+        assertEquals("Dr. \"Q\"", contact.get("title").asText());
+        assertEquals("Zoë\n", contact.get("firstname").asText());
+    }
+
+    @Test
+    void serialize_writesEveryContactField() throws Exception {
+        ContactResponseDto contact = new ContactResponseDto();
+        Field[] fields = ContactResponseDto.class.getDeclaredFields();
+        for (Field field : fields) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            if (field.getType() == String.class) {
+                field.set(contact, field.getName());
+            } else if (field.getType() == UUID.class) {
+                field.set(contact, UUID.randomUUID());
+            } else {
+                fail("No sample value for ContactResponseDto." + field.getName() + ", extend this test and the serializer");
+            }
+        }
+
+        JsonNode written = objectMapper.readTree(objectMapper.writeValueAsString(
+                new ContactPageResponseDto(List.of(contact), 0, 1, 1, 1))).get("content").get(0);
+
+        for (Field field : fields) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                assertTrue(written.has(field.getName()), "ContactPageSerializer does not write " + field.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.abbasza.contactapi.mapper;
+
+import com.abbasza.contactapi.dto.ContactDetailResponseDto;
+import com.abbasza.contactapi.dto.ContactResponseDto;
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.ContactEmail;
+import com.abbasza.contactapi.model.ContactPhone;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactMapperTest {
+
+    private final ContactMapper contactMapper = new ContactMapperImpl();
+
+    private Contact contact;
+
+    @BeforeEach
+    void setup() {
+        contact = Contact.builder()
+                .id(UUID.randomUUID())
+                .version(3L)
+                .title("Mr")
+                .firstName("John")
+                .lastName("Doe")
+                .emails(List.of(ContactEmail.builder().emailType(EmailType.WORK).emailValue("john@work.com").build()))
+                .phones(List.of(ContactPhone.builder().phoneType(PhoneType.HOME).phoneValue("123").build()))
+                .build();
+    }
+
+    @Test
+    void toContactResponse_mapsSummaryFields() {
+        ContactResponseDto dto = contactMapper.toContactResponse(contact);
+
+        assertEquals(contact.getId(), dto.getId());
+        assertEquals("Mr", dto.getTitle());
+        assertEquals("John", dto.getFirstname());
+        assertEquals("Doe", dto.getLastname());
+    }
+
+    @Test
+    void toContactDetailResponse_mapsChildren() {
+        ContactDetailResponseDto dto = contactMapper.toContactDetailResponse(contact);
+
+        assertEquals(3L, dto.getVersion());
+        assertEquals("John", dto.getFirstname());
+        assertEquals(EmailType.WORK, dto.getEmails().get(0).getEmailtype());
+        assertEquals("john@work.com", dto.getEmails().get(0).getEmailvalue());
+        assertEquals(PhoneType.HOME, dto.getPhones().get(0).getPhonetype());
+        assertEquals("123", dto.getPhones().get(0).getPhonevalue());
+    }
+
+    @Test
+    void toContactDetailResponse_usesSeparatelyLoadedChildren() {
+        ContactPhone phone = ContactPhone.builder().phoneType(PhoneType.WORK).phoneValue("456").build();
+
+        ContactDetailResponseDto dto = contactMapper.toContactDetailResponse(contact, List.of(), List.of(phone));
+
+        assertEquals(contact.getId(), dto.getId());
+        assertEquals("Doe", dto.getLastname());
+        assertTrue(dto.getEmails().isEmpty());
+        assertEquals("456", dto.getPhones().get(0).getPhonevalue());
+    }
+}
@@ -0,0 +1,38 @@
+package com.abbasza.contactapi.mapper;
+
+import com.abbasza.contactapi.dto.GetSelfResponseDto;
+import com.abbasza.contactapi.dto.UpdateUserResponseDto;
+import com.abbasza.contactapi.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserMapperTest {
+
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    @Test
+    void toGetSelfResponse_usesEmailOrPhoneAsUsername() {
+        User user = User.builder().id(UUID.randomUUID()).phone("+123").firstName("Jane").lastName("Roe").build();
+
+        GetSelfResponseDto dto = userMapper.toGetSelfResponse(user);
+
+        assertEquals(user.getId(), dto.getId());
+        assertEquals("+123", dto.getUsername());
+        assertEquals("Jane", dto.getFirstname());
+        assertEquals("Roe", dto.getLastname());
+    }
+
+    @Test
+    void toUpdateUserResponse_mapsNames() {
+        User user = User.builder().email("jane@mail.com").firstName("Jane").lastName("Roe").build();
+
+        UpdateUserResponseDto dto = userMapper.toUpdateUserResponse(user);
+
+        assertEquals("jane@mail.com", dto.getUsername());
+        assertEquals("Jane", dto.getFirstname());
+        assertEquals("Roe", dto.getLastname());
+    }
+}
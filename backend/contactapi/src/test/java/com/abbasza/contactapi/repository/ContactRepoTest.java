@@ -1,16 +1,28 @@
 package com.abbasza.contactapi.repository;
 
+import com.abbasza.contactapi.dto.ContactResponseDto;
 import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.ContactEmail;
+import com.abbasza.contactapi.model.ContactPhone;
 import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+import com.abbasza.contactapi.service.ContactCursor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -50,4 +62,86 @@ class ContactRepoTest {
 
         assertEquals(2, page.getContent().size());
     }
+
+    @Test
+    void findContactSummariesByUserId() {
+        User user = em.persist(User.builder().email("e@f.com").password("x").build());
+        User other = em.persist(User.builder().email("g@h.com").password("x").build());
+
+        em.persist(Contact.builder().firstName("A").lastName("One").title("Dr").user(user).build());
+        em.persist(Contact.builder().firstName("B").user(other).build());
+
+        List<ContactResponseDto> summaries = contactRepo.findContactSummariesByUserId(user.getId());
+
+        assertEquals(1, summaries.size());
+        assertEquals("A", summaries.get(0).getFirstname());
+        assertEquals("One", summaries.get(0).getLastname());
+        assertEquals("Dr", summaries.get(0).getTitle());
+    }
+
+    @Test
+    void findContactSummariesByUserId_pagesSortedProjection() {
+        User user = em.persist(User.builder().email("k@l.com").password("x").build());
+
+        em.persist(Contact.builder().firstName("C").user(user).build());
+        em.persist(Contact.builder().firstName("A").lastName("One").user(user).build());
+        em.persist(Contact.builder().firstName("B").user(user).build());
+
+        Page<ContactResponseDto> page =
+                contactRepo.findContactSummariesByUserId(user.getId(), PageRequest.of(0, 2, Sort.by("firstName")));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("A", "B"), page.getContent().stream().map(ContactResponseDto::getFirstname).toList());
+        assertEquals("One", page.getContent().get(0).getLastname());
+    }
+
+    @Test
+    void keysetQueries_walkAllContactsInOrder() {
+        User user = em.persist(User.builder().email("i@j.com").password("x").build());
+        String[][] names = {{"Ann", "Lee"}, {"Ann", null}, {"Ann", "Lee"}, {"Ann", "Able"}, {"Bob", null}, {"Cy", "Zed"}, {"Ann", null}};
+        for (String[] name : names) {
+            em.persist(Contact.builder().firstName(name[0]).lastName(name[1]).user(user).build());
+        }
+        em.flush();
+
+        List<ContactResponseDto> seen = new ArrayList<>();
+        PageRequest limit = PageRequest.of(0, 2);
+        List<ContactResponseDto> page = contactRepo.findFirstContactSummariesByUserId(user.getId(), limit);
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            ContactCursor after = ContactCursor.of(page.get(page.size() - 1));
+            page = after.getLastName() == null
+                    ? contactRepo.findContactSummariesByUserIdAfterNullLastName(user.getId(), after.getFirstName(), after.getId(), limit)
+                    : contactRepo.findContactSummariesByUserIdAfter(user.getId(), after.getFirstName(), after.getLastName(), after.getId(), limit);
+        }
+
+        assertEquals(names.length, seen.stream().map(ContactResponseDto::getId).distinct().count());
+        assertEquals(List.of("Ann Able", "Ann Lee", "Ann Lee", "Ann null", "Ann null", "Bob null", "Cy Zed"),
+                seen.stream().map(c -> c.getFirstname() + " " + c.getLastname()).toList());
+    }
+
+    @Test
+    void streamContactExportRows_joinsEmailsAndPhonesInListOrder() {
+        User user = em.persist(User.builder().email("m@n.com").password("x").build());
+        User other = em.persist(User.builder().email("o@p.com").password("x").build());
+        Contact bob = em.persist(Contact.builder().firstName("Bob").user(user).build());
+        Contact ann = em.persist(Contact.builder().firstName("Ann").lastName("Lee").user(user).build());
+        em.persist(ContactEmail.builder().contact(ann).emailType(EmailType.WORK).emailValue("ann@work.com").build());
+        em.persist(ContactPhone.builder().contact(ann).phoneType(PhoneType.HOME).phoneValue("+15550001").build());
+        em.persist(Contact.builder().firstName("Cy").user(other).build());
+        em.flush();
+
+        List<ContactExportRow> rows;
+        try (Stream<ContactExportRow> stream = contactRepo.streamContactExportRows(user.getId())) {
+            rows = stream.toList();
+        }
+
+        assertEquals(List.of(ann.getId(), ann.getId(), bob.getId()), rows.stream().map(ContactExportRow::getId).toList());
+        assertEquals(Set.of("E:WORK:ann@work.com", "P:HOME:+15550001"), rows.subList(0, 2).stream()
+                .map(r -> r.getItemkind() + ":" + r.getItemtype() + ":" + r.getItemvalue())
+                .collect(Collectors.toSet()));
+        assertEquals("Lee", rows.get(0).getLastname());
+        assertNotNull(rows.get(0).getVersion());
+        assertNull(rows.get(2).getItemkind());
+    }
 }
@@ -0,0 +1,57 @@
+package com.abbasza.contactapi.repository;
+
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.ContactEmail;
+import com.abbasza.contactapi.model.ContactPhone;
+import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("dev")
+@Import(JdbcContactBulkWriter.class)
+class JdbcContactBulkWriterTest {
+
+    @Autowired
+    private JdbcContactBulkWriter jdbcContactBulkWriter;
+
+    @Autowired
+    private ContactRepo contactRepo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void insert_writesContactsWithTheirEmailsAndPhones() {
+        User user = em.persist(User.builder().email("bulk@x.com").password("x").build());
+        em.flush();
+        Contact contact = Contact.builder().id(UUID.randomUUID()).firstName("Ann").lastName("Lee")
+                .emails(new ArrayList<>()).phones(new ArrayList<>()).build();
+        contact.getEmails().add(ContactEmail.builder().id(UUID.randomUUID()).contact(contact)
+                .emailType(EmailType.WORK).emailValue("ann@work.com").build());
+        contact.getPhones().add(ContactPhone.builder().id(UUID.randomUUID()).contact(contact)
+                .phoneType(PhoneType.HOME).phoneValue("+15550001").build());
+        Contact bare = Contact.builder().id(UUID.randomUUID()).firstName("Bob")
+                .emails(new ArrayList<>()).phones(new ArrayList<>()).build();
+
+        jdbcContactBulkWriter.insert(user.getId(), List.of(contact, bare));
+
+        Contact saved = contactRepo.findContactDetailByIdAndUserId(contact.getId(), user.getId()).orElseThrow();
+        assertEquals(0L, saved.getVersion());
+        assertEquals("ann@work.com", saved.getEmails().get(0).getEmailValue());
+        assertEquals(PhoneType.HOME, saved.getPhones().get(0).getPhoneType());
+        assertTrue(contactRepo.findContactByIdAndUserId(bare.getId(), user.getId()).isPresent());
+    }
+}
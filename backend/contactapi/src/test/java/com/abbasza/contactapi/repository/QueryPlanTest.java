@@ -0,0 +1,276 @@
+package com.abbasza.contactapi.repository;
+
+import com.abbasza.contactapi.config.StatementCounter;
+import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.service.DataSeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs every repository query against seeded Postgres data and fails when a plan reads a whole table or sorts where
+ * an index should supply the order.
+ * <p>
+ * Each query is issued through its repository method (inside a rolled-back transaction), the SQL Hibernate sent is
+ * captured with its parameters, and {@code EXPLAIN} is run on it with {@code enable_seqscan} and the sort settings
+ * off. The planner then only falls back to a sequential scan, a full index scan or a sort when no index can serve
+ * the query, so a plan containing one is a missing or unusable index, whatever the table sizes. The
+ * {@code ON DELETE CASCADE} lookups are checked with the statements the foreign-key triggers run.
+ * <p>
+ * Needs a Postgres database of its own: {@code PG_TEST_URL=jdbc:postgresql://localhost:5432/plans}. The seed
+ * profile fills it on the first run.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${PG_TEST_URL}",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "seed.users=200",
+        "seed.contacts=50000"
+})
+@ActiveProfiles({"qa", "seed"})
+@Import(StatementCounter.Config.class)
+@EnabledIfEnvironmentVariable(named = "PG_TEST_URL", matches = ".+")
+class QueryPlanTest {
+    private static final Set<String> SORTS = Set.of("Sort", "Incremental Sort");
+    private static final Set<String> INDEX_SCANS = Set.of("Index Scan", "Index Only Scan");
+    private static boolean analyzed;
+
+    @Autowired
+    private ContactRepo contactRepo;
+
+    @Autowired
+    private ContactEmailRepo contactEmailRepo;
+
+    @Autowired
+    private ContactPhoneRepo contactPhoneRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private ContactTombstoneRepo contactTombstoneRepo;
+
+    @Autowired
+    private RefreshTokenRepo refreshTokenRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<String> violations = new ArrayList<>();
+    private User user;
+    private UUID contactId;
+
+    @BeforeEach
+    void setUp() {
+        if (!analyzed) {
+            // the seeder leaves these empty, and on an empty table any index looks as cheap as the right one
+            jdbcTemplate.update("INSERT INTO refresh_token (id, user_id, family_id, token_hash, created_time, expires_at) "
+                    + "SELECT gen_random_uuid(), u.id, gen_random_uuid(), md5(random()::text) || md5(random()::text), now(), "
+                    + "now() + interval '14 days' FROM app_user u, generate_series(1, 20) "
+                    + "WHERE u.email LIKE 'seed-%' AND NOT EXISTS (SELECT 1 FROM refresh_token)");
+            jdbcTemplate.update("INSERT INTO contact_tombstone (contact_id, user_id, change_version, deleted_at) "
+                    + "SELECT gen_random_uuid(), u.id, g, now() FROM app_user u, generate_series(1, 20) g "
+                    + "WHERE u.email LIKE 'seed-%' AND NOT EXISTS (SELECT 1 FROM contact_tombstone)");
+            jdbcTemplate.execute("ANALYZE");
+            analyzed = true;
+        }
+        // a mid-sized address book, so the plans are those of a typical user
+        user = userRepo.findUserByEmail(DataSeeder.email(100)).orElseThrow();
+        contactId = jdbcTemplate.queryForObject("SELECT id FROM contacts WHERE user_id = ? LIMIT 1", UUID.class, user.getId());
+    }
+
+    @Test
+    void contactRepoQueries_useIndexesOnly() {
+        UUID userId = user.getId();
+        List<UUID> ids = List.of(contactId, UUID.randomUUID());
+        PageRequest limit = PageRequest.of(0, 20);
+
+        explain("findContactsByUserId", () -> contactRepo.findContactsByUserId(userId, limit));
+        explain("findContactByIdAndUserId", () -> contactRepo.findContactByIdAndUserId(contactId, userId));
+        explain("findContactDetailByIdAndUserId", () -> contactRepo.findContactDetailByIdAndUserId(contactId, userId)
+                .orElseThrow().getPhones().size());
+        explain("findContactsByIdInAndUserId", () -> contactRepo.findContactsByIdInAndUserId(ids, userId)
+                .forEach(contact -> contact.getEmails().size()));
+        explain("findVersionByIdAndUserId", () -> contactRepo.findVersionByIdAndUserId(contactId, userId));
+        explain("findChangesUpTo", () -> contactRepo.findChangesUpTo(userId, 10, limit));
+        explain("findChangesSince", () -> contactRepo.findChangesSince(userId, 0, 10, limit));
+        explain("findChangesAfter", () -> contactRepo.findChangesAfter(userId, 0, contactId, 10, limit));
+        explain("findContactSummariesByUserId (page)", () -> contactRepo.findContactSummariesByUserId(userId,
+                PageRequest.of(1, 20, Sort.by("firstName"))));
+        explain("findFirstContactSummariesByUserId", () -> contactRepo.findFirstContactSummariesByUserId(userId, limit));
+        explain("findContactSummariesByUserIdAfter", () -> contactRepo.findContactSummariesByUserIdAfter(userId,
+                "John", "Smith", contactId, limit));
+        explain("findContactSummariesByUserIdAfterNullLastName", () -> contactRepo
+                .findContactSummariesByUserIdAfterNullLastName(userId, "John", contactId, limit));
+        explain("findContactSummariesByUserId", () -> contactRepo.findContactSummariesByUserId(userId));
+        explain("streamContactExportRows", () -> {
+            try (var rows = contactRepo.streamContactExportRows(userId)) {
+                rows.findFirst();
+            }
+        });
+        // ordered by relevance, so the final sort is expected
+        explain("searchContactsRanked", Set.of("Sort"), () -> contactRepo.searchContactsRanked(userId,
+                "john:*", "%john%", "john", 20, 0));
+        explain("findById", () -> contactRepo.findById(contactId));
+        explain("deleteById", () -> {
+            contactRepo.deleteById(contactId);
+            contactRepo.flush();
+        });
+        explain("deleteContactsByUserId", () -> contactRepo.deleteContactsByUserId(userId));
+
+        assertNoViolations();
+    }
+
+    @Test
+    void childRepoQueries_useIndexesOnly() {
+        UUID userId = user.getId();
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest limit = PageRequest.of(0, 20);
+
+        explain("findContactEmailsByContactId", () -> contactEmailRepo.findContactEmailsByContactId(contactId));
+        explain("findContactPhoneByContactId", () -> contactPhoneRepo.findContactPhoneByContactId(contactId));
+        explain("tombstone findChangesSince", () -> contactTombstoneRepo.findChangesSince(userId, 0, 10, limit));
+        explain("tombstone findChangesAfter", () -> contactTombstoneRepo.findChangesAfter(userId, 0, contactId, 10, limit));
+        explain("tombstone deleteExpired", () -> contactTombstoneRepo.deleteExpired(now.minusDays(30)));
+        explain("findRefreshTokenByTokenHash", () -> refreshTokenRepo.findRefreshTokenByTokenHash("0".repeat(64)));
+        explain("markUsed", () -> refreshTokenRepo.markUsed(UUID.randomUUID(), now));
+        explain("revokeFamily", () -> refreshTokenRepo.revokeFamily(UUID.randomUUID()));
+        explain("revokeByUserId", () -> refreshTokenRepo.revokeByUserId(userId));
+        explain("refresh token deleteExpiredByUserId", () -> refreshTokenRepo.deleteExpiredByUserId(userId, now));
+
+        assertNoViolations();
+    }
+
+    @Test
+    void userRepoQueries_useIndexesOnly() {
+        UUID userId = user.getId();
+
+        explain("findUserByEmail", () -> userRepo.findUserByEmail(user.getEmail()));
+        explain("findUserByPhone", () -> userRepo.findUserByPhone("+15550100"));
+        explain("existsUserByEmail", () -> userRepo.existsUserByEmail(user.getEmail()));
+        explain("findEmailsByEmailIn", () -> userRepo.findEmailsByEmailIn(List.of(user.getEmail(), DataSeeder.email(101))));
+        explain("findVersionById", () -> userRepo.findVersionById(userId));
+        explain("findContactsVersionById", () -> userRepo.findContactsVersionById(userId));
+        explain("incrementContactsVersion", () -> userRepo.incrementContactsVersion(userId));
+        explain("findById", () -> userRepo.findById(userId));
+
+        assertNoViolations();
+    }
+
+    @Test
+    void cascadingDeletes_useIndexesOnly() {
+        // the lookups the ON DELETE CASCADE triggers run when a user or a contact is deleted
+        explain("contacts of a deleted user", "DELETE FROM contacts WHERE user_id = ?", user.getId());
+        explain("refresh tokens of a deleted user", "DELETE FROM refresh_token WHERE user_id = ?", user.getId());
+        explain("tombstones of a deleted user", "DELETE FROM contact_tombstone WHERE user_id = ?", user.getId());
+        explain("emails of a deleted contact", "DELETE FROM contact_email WHERE contact_id = ?", contactId);
+        explain("phones of a deleted contact", "DELETE FROM contact_phone WHERE contact_id = ?", contactId);
+
+        assertNoViolations();
+    }
+
+    private void explain(String name, Runnable query) {
+        explain(name, Set.of(), query);
+    }
+
+    /**
+     * Runs {@code query} in a transaction that is rolled back, then checks the plan of every statement it sent.
+     */
+    private void explain(String name, Set<String> allowedSorts, Runnable query) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            StatementCounter.reset();
+            query.run();
+            status.setRollbackOnly();
+        });
+        for (StatementCounter.Execution execution : StatementCounter.executions()) {
+            check(name, execution.sql(), execution.parameters(), allowedSorts);
+        }
+    }
+
+    private void explain(String name, String sql, Object... parameters) {
+        check(name, sql, List.of(parameters), Set.of());
+    }
+
+    private void check(String name, String sql, List<Object> parameters, Set<String> allowedSorts) {
+        JsonNode plan = jdbcTemplate.execute((ConnectionCallback<JsonNode>) connection -> {
+            try (Statement settings = connection.createStatement()) {
+                settings.execute("SET enable_seqscan = off");
+                settings.execute("SET enable_sort = off");
+                settings.execute("SET enable_incremental_sort = off");
+            }
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    explain.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet rs = explain.executeQuery()) {
+                    rs.next();
+                    return objectMapper.readTree(rs.getString(1)).get(0).get("Plan");
+                } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+                    throw new IllegalStateException(e);
+                }
+            } finally {
+                try (Statement settings = connection.createStatement()) {
+                    settings.execute("RESET ALL");
+                }
+            }
+        });
+        List<String> problems = new ArrayList<>();
+        walk(plan, allowedSorts, problems);
+        if (!problems.isEmpty()) {
+            violations.add(name + ": " + String.join(", ", problems) + "\n    " + sql + "\n    " + plan.toPrettyString()
+                    .replace("\n", "\n    "));
+        }
+    }
+
+    private static void walk(JsonNode node, Set<String> allowedSorts, List<String> problems) {
+        String type = node.path("Node Type").asText();
+        String relation = node.path("Relation Name").asText();
+        if ("Seq Scan".equals(type)) {
+            problems.add("sequential scan on " + relation);
+        } else if (INDEX_SCANS.contains(type) && !node.has("Index Cond")) {
+            problems.add("full scan of " + node.path("Index Name").asText() + " on " + relation);
+        } else if (SORTS.contains(type) && !allowedSorts.contains(type)) {
+            problems.add(type.toLowerCase() + " on " + node.path("Sort Key"));
+        }
+        for (JsonNode child : node.path("Plans")) {
+            walk(child, allowedSorts, problems);
+        }
+    }
+
+    private void assertNoViolations() {
+        if (!violations.isEmpty()) {
+            fail(violations.size() + " plan(s) without a usable index:\n" + String.join("\n", violations));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.abbasza.contactapi.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "security.actuator.username=scraper",
+        "security.actuator.password=scrape-secret",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("dev")
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void health_isPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheus_requiresScrapeCredentials() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("scraper", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void prometheus_exposesEndpointPoolHibernateAndHashingMeters() throws Exception {
+        mockMvc.perform(get("/public/"));
+
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("scraper", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("hibernate_entities_loads_total")))
+                .andExpect(content().string(containsString("password_hash_seconds_bucket")));
+    }
+
+    @Test
+    void appEndpoints_stillRequireJwt() throws Exception {
+        mockMvc.perform(get("/contact").with(httpBasic("scraper", "scrape-secret")))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -41,6 +41,9 @@ class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -74,11 +77,14 @@ class AuthServiceTest {
                 .thenReturn(user);
         when(authUtil.generateAcessToken(user))
                 .thenReturn("jwt-token");
+        when(refreshTokenService.issue(user))
+                .thenReturn("refresh-token");
 
         LoginResponseDto response = authService.login(dto);
 
         assertEquals(USER_ID, response.getUserId());
         assertEquals("jwt-token", response.getJwt());
+        assertEquals("refresh-token", response.getRefreshToken());
     }
 
     @Test
@@ -0,0 +1,87 @@
+package com.abbasza.contactapi.security;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ThreadPoolExecutor executor;
+
+    @AfterEach
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void encode_roundTripsThroughThePool() {
+        PasswordHashingService service = service(5, 1, 4);
+
+        String hash = service.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(service.matches("secret", hash));
+        assertFalse(service.matches("wrong", hash));
+    }
+
+    @Test
+    void encodeAndMatches_recordHashTimePerOperation() {
+        PasswordHashingService service = service(4, 1, 1);
+
+        String hash = service.encode("secret");
+        service.matches("secret", hash);
+        service.matches("wrong", hash);
+
+        Timer encode = meterRegistry.get("password.hash").tag("operation", "encode").timer();
+        Timer matches = meterRegistry.get("password.hash").tag("operation", "matches").timer();
+        assertEquals(1, encode.count());
+        assertEquals(2, matches.count());
+        assertTrue(encode.totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    void encode_failsFastWhenPoolAndQueueAreFull() throws InterruptedException {
+        PasswordHashingService service = service(4, 1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThrows(RejectedExecutionException.class, () -> service.encode("secret"));
+        release.countDown();
+    }
+
+    @Test
+    void upgradeEncoding_flagsHashesBelowCurrentStrength() {
+        PasswordHashingService service = service(5, 1, 1);
+
+        assertTrue(service.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(service.upgradeEncoding(service.encode("secret")));
+    }
+
+    @Test
+    void calibrate_staysWithinBounds() {
+        assertEquals(4, PasswordHashingService.calibrate(Duration.ZERO, 4, 12));
+        assertEquals(6, PasswordHashingService.calibrate(Duration.ofSeconds(10), 4, 6));
+    }
+
+    private PasswordHashingService service(int strength, int poolSize, int queueCapacity) {
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>());
+        return new PasswordHashingService(new BCryptPasswordEncoder(strength), executor, meterRegistry);
+    }
+}
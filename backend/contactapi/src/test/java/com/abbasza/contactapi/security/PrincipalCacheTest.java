@@ -0,0 +1,93 @@
+package com.abbasza.contactapi.security;
+
+import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.repository.UserRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    @Mock
+    private UserRepo userRepo;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache principalCache;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(userRepo, meterRegistry, Duration.ofMinutes(5), 100);
+        user = User.builder().id(UUID.randomUUID()).email("test@mail.com").password("x").build();
+    }
+
+    @Test
+    void getPrincipal_loadsOnceAndServesFromCache() {
+        when(userRepo.findById(user.getId())).thenReturn(Optional.of(user));
+
+        UserPrincipal principal = principalCache.getPrincipal(user.getId(), "test@mail.com");
+        assertEquals(user.getId(), principal.getId());
+        assertSame(principal, principalCache.getPrincipal(user.getId(), "test@mail.com"));
+
+        verify(userRepo, times(1)).findById(user.getId());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "principals").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void invalidate_forcesReload() {
+        when(userRepo.findById(user.getId())).thenReturn(Optional.of(user));
+
+        principalCache.getPrincipal(user.getId(), "test@mail.com");
+        principalCache.invalidate(user.getId());
+        principalCache.getPrincipal(user.getId(), "test@mail.com");
+
+        verify(userRepo, times(2)).findById(user.getId());
+    }
+
+    @Test
+    void invalidate_duringLoad_discardsLoadedPrincipal() {
+        // the update commits and invalidates after the load has read the old row
+        when(userRepo.findById(user.getId())).thenAnswer(invocation -> {
+            principalCache.invalidate(user.getId());
+            return Optional.of(user);
+        }).thenReturn(Optional.of(user));
+
+        principalCache.getPrincipal(user.getId(), "test@mail.com");
+        principalCache.getPrincipal(user.getId(), "test@mail.com");
+
+        verify(userRepo, times(2)).findById(user.getId());
+    }
+
+    @Test
+    void getPrincipal_rejectsSubjectThatNoLongerMatches() {
+        when(userRepo.findById(user.getId())).thenReturn(Optional.of(user));
+
+        assertThrows(UsernameNotFoundException.class,
+                () -> principalCache.getPrincipal(user.getId(), "old@mail.com"));
+    }
+
+    @Test
+    void getPrincipal_unknownUser_isNotCached() {
+        UUID id = UUID.randomUUID();
+        when(userRepo.findById(id)).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> principalCache.getPrincipal(id, "ghost@mail.com"));
+        assertThrows(UsernameNotFoundException.class, () -> principalCache.getPrincipal(id, "ghost@mail.com"));
+
+        verify(userRepo, times(2)).findById(id);
+    }
+}
@@ -0,0 +1,124 @@
+package com.abbasza.contactapi.security;
+
+import com.abbasza.contactapi.dto.LoginResponseDto;
+import com.abbasza.contactapi.model.RefreshToken;
+import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.repository.RefreshTokenRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepo refreshTokenRepo;
+
+    @Mock
+    private AuthUtil authUtil;
+
+    private RefreshTokenService refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepo, authUtil, Duration.ofDays(14));
+        user = User.builder().id(UUID.randomUUID()).email("user@mail.com").password("hashed").build();
+    }
+
+    @Test
+    void issue_storesOnlyTheHashInANewFamily() {
+        String token = refreshTokenService.issue(user);
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepo).save(saved.capture());
+        assertEquals(RefreshTokenService.hash(token), saved.getValue().getTokenHash());
+        assertNotEquals(token, saved.getValue().getTokenHash());
+        assertNotNull(saved.getValue().getFamilyId());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(LocalDateTime.now().plusDays(13)));
+    }
+
+    @Test
+    void refresh_rotatesWithinTheSameFamily() {
+        RefreshToken stored = stored("old-token");
+        when(refreshTokenRepo.findRefreshTokenByTokenHash(RefreshTokenService.hash("old-token"))).thenReturn(Optional.of(stored));
+        when(refreshTokenRepo.markUsed(eq(stored.getId()), any())).thenReturn(1);
+        when(authUtil.generateAcessToken(user)).thenReturn("new-jwt");
+
+        LoginResponseDto response = refreshTokenService.refresh("old-token");
+
+        assertEquals("new-jwt", response.getJwt());
+        assertNotEquals("old-token", response.getRefreshToken());
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepo).save(saved.capture());
+        assertEquals(stored.getFamilyId(), saved.getValue().getFamilyId());
+        verify(refreshTokenRepo, never()).revokeFamily(any());
+    }
+
+    @Test
+    void refresh_reusedToken_revokesFamily() {
+        RefreshToken stored = stored("old-token");
+        stored.setUsedAt(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepo.findRefreshTokenByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.refresh("old-token"));
+
+        verify(refreshTokenRepo).revokeFamily(stored.getFamilyId());
+        verify(refreshTokenRepo, never()).save(any());
+        verifyNoInteractions(authUtil);
+    }
+
+    @Test
+    void refresh_lostRace_revokesFamily() {
+        RefreshToken stored = stored("old-token");
+        when(refreshTokenRepo.findRefreshTokenByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepo.markUsed(eq(stored.getId()), any())).thenReturn(0);
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.refresh("old-token"));
+
+        verify(refreshTokenRepo).revokeFamily(stored.getFamilyId());
+    }
+
+    @Test
+    void refresh_expiredToken_isRejected() {
+        RefreshToken stored = stored("old-token");
+        stored.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        when(refreshTokenRepo.findRefreshTokenByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.refresh("old-token"));
+
+        verify(refreshTokenRepo, never()).markUsed(any(), any());
+    }
+
+    @Test
+    void refresh_unknownToken_isRejected() {
+        when(refreshTokenRepo.findRefreshTokenByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.refresh("nope"));
+    }
+
+    private RefreshToken stored(String token) {
+        return RefreshToken.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .familyId(UUID.randomUUID())
+                .tokenHash(RefreshTokenService.hash(token))
+                .createdTime(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactBatchResultDto;
+import com.abbasza.contactapi.dto.ContactChangesResponseDto;
+import com.abbasza.contactapi.dto.ContactDetailResponseDto;
+import com.abbasza.contactapi.dto.ContactRequestDto;
+import com.abbasza.contactapi.error.BadRequestException;
+import com.abbasza.contactapi.model.ContactTombstone;
+import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.repository.ContactTombstoneRepo;
+import com.abbasza.contactapi.repository.UserRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO"
+})
+@ActiveProfiles("dev")
+class ContactChangeServiceTest {
+
+    @Autowired
+    private ContactChangeService contactChangeService;
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private ContactTombstoneRepo contactTombstoneRepo;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepo.save(User.builder().email(UUID.randomUUID() + "@changes.com").password("x").build());
+    }
+
+    @Test
+    void getChanges_withoutToken_returnsLiveContactsThenOnlyLaterChanges() {
+        UUID kept = contactService.saveContact(user.getId(), request("Kept")).getId();
+        ContactDetailResponseDto edited = contactService.saveContact(user.getId(), request("Edited"));
+        UUID deleted = contactService.saveContact(user.getId(), request("Deleted")).getId();
+
+        ContactChangesResponseDto initial = contactChangeService.getChanges(user.getId(), null, 100).orElseThrow();
+
+        assertEquals(Set.of(kept, edited.getId(), deleted), ids(initial));
+        assertTrue(initial.getDeleted().isEmpty());
+        assertFalse(initial.isHasMore());
+
+        ContactRequestDto rename = request("Renamed");
+        rename.setVersion(edited.getVersion());
+        contactService.updateContact(user.getId(), edited.getId(), rename);
+        contactService.deleteContactById(user.getId(), deleted);
+        UUID created = contactService.saveContact(user.getId(), request("Created")).getId();
+
+        ContactChangesResponseDto delta = contactChangeService.getChanges(user.getId(), initial.getNextToken(), 100).orElseThrow();
+
+        assertEquals(List.of(edited.getId(), created), delta.getChanged().stream().map(ContactDetailResponseDto::getId).toList());
+        assertEquals("Renamed", delta.getChanged().get(0).getFirstname());
+        assertEquals(List.of(deleted), delta.getDeleted());
+        assertFalse(delta.isHasMore());
+
+        ContactChangesResponseDto idle = contactChangeService.getChanges(user.getId(), delta.getNextToken(), 100).orElseThrow();
+
+        assertTrue(idle.getChanged().isEmpty());
+        assertTrue(idle.getDeleted().isEmpty());
+    }
+
+    @Test
+    void getChanges_pagesThroughContactsWrittenAtTheSameVersion() {
+        List<ContactRequestDto> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            batch.add(request("Batch" + i));
+        }
+        Set<UUID> written = new HashSet<>();
+        for (ContactBatchResultDto result : contactService.saveContacts(user.getId(), batch)) {
+            written.add(result.getId());
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        List<Boolean> hasMore = new ArrayList<>();
+        String token = null;
+        do {
+            ContactChangesResponseDto page = contactChangeService.getChanges(user.getId(), token, 2).orElseThrow();
+            for (UUID id : ids(page)) {
+                assertTrue(seen.add(id), "delivered twice: " + id);
+            }
+            hasMore.add(page.isHasMore());
+            token = page.getNextToken();
+        } while (hasMore.get(hasMore.size() - 1));
+
+        assertEquals(written, seen);
+        assertEquals(List.of(true, true, false), hasMore);
+    }
+
+    @Test
+    void getChanges_expiredToken_requiresResync() {
+        contactService.saveContact(user.getId(), request("John"));
+        long issuedAt = Instant.now().minus(Duration.ofDays(31)).getEpochSecond();
+        String expired = new ContactChangeToken(0, null, issuedAt).encode();
+
+        assertTrue(contactChangeService.getChanges(user.getId(), expired, 100).isEmpty());
+    }
+
+    @Test
+    void deleteExpiredTombstones_purgesOnlyTombstonesOlderThanTheTokenTtl() {
+        User other = userRepo.save(User.builder().email(UUID.randomUUID() + "@changes.com").password("x").build());
+        UUID expired = tombstone(user, 1, LocalDateTime.now().minusDays(31));
+        UUID otherExpired = tombstone(other, 1, LocalDateTime.now().minusDays(31));
+        UUID live = tombstone(user, 2, LocalDateTime.now().minusDays(1));
+
+        contactChangeService.deleteExpiredTombstones();
+
+        assertFalse(contactTombstoneRepo.existsById(expired));
+        assertFalse(contactTombstoneRepo.existsById(otherExpired));
+        assertTrue(contactTombstoneRepo.existsById(live));
+    }
+
+    @Test
+    void getChanges_rejectsInvalidInput() {
+        assertThrows(BadRequestException.class, () -> contactChangeService.getChanges(user.getId(), null, 0));
+        assertThrows(BadRequestException.class, () -> contactChangeService.getChanges(user.getId(), "not-a-token", 10));
+    }
+
+    private UUID tombstone(User owner, long changeVersion, LocalDateTime deletedAt) {
+        return contactTombstoneRepo.save(ContactTombstone.builder()
+                .contactId(UUID.randomUUID())
+                .user(owner)
+                .changeVersion(changeVersion)
+                .deletedAt(deletedAt)
+                .build()).getContactId();
+    }
+
+    private static Set<UUID> ids(ContactChangesResponseDto changes) {
+        Set<UUID> ids = new HashSet<>();
+        for (ContactDetailResponseDto contact : changes.getChanged()) {
+            ids.add(contact.getId());
+        }
+        return ids;
+    }
+
+    private static ContactRequestDto request(String firstname) {
+        ContactRequestDto request = new ContactRequestDto();
+        request.setFirstname(firstname);
+        return request;
+    }
+}
@@ -0,0 +1,80 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactRequestDto;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactCsvImportReaderTest {
+
+    private static List<ContactImportRecord> readAll(String csv) throws IOException {
+        List<ContactImportRecord> records = new ArrayList<>();
+        try (ContactCsvImportReader reader = new ContactCsvImportReader(new StringReader(csv))) {
+            ContactImportRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void next_readsExportLayoutWithQuotedFields() throws IOException {
+        List<ContactImportRecord> records = readAll("id,title,firstname,lastname,emails,phones\r\n"
+                + "00000000-0000-0000-0000-000000000001,Dr,Ann,\"Lee, Jr\",WORK:ann@work.com;PERSONAL:ann@home.com,HOME:+15550001\r\n"
+                + "00000000-0000-0000-0000-000000000002,,\"Bob \"\"B\"\"\",\"multi\nline\",,\r\n");
+
+        assertEquals(2, records.size());
+        ContactRequestDto ann = records.get(0).getContact();
+        assertEquals(2, records.get(0).getLine());
+        assertEquals("Dr", ann.getTitle());
+        assertEquals("Lee, Jr", ann.getLastname());
+        assertEquals(EmailType.PERSONAL, ann.getEmails().get(1).getEmailtype());
+        assertEquals("ann@home.com", ann.getEmails().get(1).getEmailvalue());
+        assertEquals(PhoneType.HOME, ann.getPhones().get(0).getPhonetype());
+
+        ContactRequestDto bob = records.get(1).getContact();
+        assertEquals(3, records.get(1).getLine());
+        assertEquals("Bob \"B\"", bob.getFirstname());
+        assertEquals("multi\nline", bob.getLastname());
+        assertNull(bob.getTitle());
+        assertTrue(bob.getEmails().isEmpty());
+    }
+
+    @Test
+    void next_matchesHeaderNamesLooselyAndSkipsBlankLines() throws IOException {
+        List<ContactImportRecord> records = readAll("First Name,last_name\n\nJane,Doe\n");
+
+        assertEquals(1, records.size());
+        assertEquals(3, records.get(0).getLine());
+        assertEquals("Jane", records.get(0).getContact().getFirstname());
+        assertEquals("Doe", records.get(0).getContact().getLastname());
+    }
+
+    @Test
+    void next_reportsBadMultiValuesAsRecordErrors() throws IOException {
+        List<ContactImportRecord> records = readAll("firstname,emails,phones\nA,FAX:a@b.com,\nB,,12345\nC,,\n");
+
+        assertEquals("unknown email type: FAX", records.get(0).getError());
+        assertEquals("phones entries must be TYPE:value, got: 12345", records.get(1).getError());
+        assertNull(records.get(2).getError());
+        assertEquals(4, records.get(2).getLine());
+    }
+
+    @Test
+    void constructor_requiresFirstnameColumn() {
+        assertThrows(IllegalArgumentException.class, () -> new ContactCsvImportReader(new StringReader("name,phone\nA,1\n")));
+    }
+
+    @Test
+    void next_failsOnUnterminatedQuote() {
+        assertThrows(IllegalArgumentException.class, () -> readAll("firstname\n\"open\nnever closed"));
+    }
+}
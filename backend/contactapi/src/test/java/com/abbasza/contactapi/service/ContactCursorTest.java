@@ -0,0 +1,31 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.error.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactCursorTest {
+
+    @Test
+    void encodeDecode_roundTrips() {
+        ContactCursor cursor = new ContactCursor("Zoë", "O'Neil, Jr.", UUID.randomUUID());
+
+        assertEquals(cursor, ContactCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void encodeDecode_keepsNullLastName() {
+        ContactCursor cursor = new ContactCursor("Cher", null, UUID.randomUUID());
+
+        assertNull(ContactCursor.decode(cursor.encode()).getLastName());
+    }
+
+    @Test
+    void decode_rejectsGarbage() {
+        assertThrows(BadRequestException.class, () -> ContactCursor.decode("not-a-cursor"));
+        assertThrows(BadRequestException.class, () -> ContactCursor.decode("%%%"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.error.BadRequestException;
+import com.abbasza.contactapi.repository.ContactExportRow;
+import com.abbasza.contactapi.repository.ContactRepo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ContactExportServiceTest {
+
+    @Mock
+    private ContactRepo contactRepo;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID ANN = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private record Row(UUID getId, Long getVersion, String getTitle, String getFirstname, String getLastname,
+                       String getItemkind, String getItemtype, String getItemvalue) implements ContactExportRow {
+    }
+
+    private Stream<ContactExportRow> rows(AtomicBoolean closed) {
+        return Stream.<ContactExportRow>of(
+                new Row(ANN, 1L, "Dr", "Ann", "Lee, Jr", "E", "WORK", "ann@work.com"),
+                new Row(ANN, 1L, "Dr", "Ann", "Lee, Jr", "P", "HOME", "+15550001"),
+                new Row(ANN, 1L, "Dr", "Ann", "Lee, Jr", "E", "PERSONAL", "ann@home.com"),
+                new Row(BOB, 3L, null, "Bob \"B\"", null, null, null, null)
+        ).onClose(() -> closed.set(true));
+    }
+
+    private String export(ContactExportFormat format, AtomicBoolean closed) throws Exception {
+        when(contactRepo.streamContactExportRows(USER_ID)).thenReturn(rows(closed));
+        ContactExportService service = new ContactExportService(contactRepo, objectMapper);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, service.export(USER_ID, format, out));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void export_ndjsonWritesOneContactPerLine() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+
+        String[] lines = export(ContactExportFormat.NDJSON, closed).split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith("{"));
+        JsonNode ann = objectMapper.readTree(lines[0]);
+        assertEquals(ANN.toString(), ann.get("id").asText());
+        assertEquals(2, ann.get("emails").size());
+        assertEquals("PERSONAL", ann.get("emails").get(1).get("emailtype").asText());
+        assertEquals("+15550001", ann.get("phones").get(0).get("phonevalue").asText());
+        assertEquals(0, objectMapper.readTree(lines[1]).get("emails").size());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void export_csvQuotesFieldsAndJoinsMultiValues() throws Exception {
+        String csv = export(ContactExportFormat.CSV, new AtomicBoolean());
+
+        assertEquals("id,title,firstname,lastname,emails,phones\r\n"
+                + ANN + ",Dr,Ann,\"Lee, Jr\",WORK:ann@work.com;PERSONAL:ann@home.com,HOME:+15550001\r\n"
+                + BOB + ",,\"Bob \"\"B\"\"\",,,\r\n", csv);
+    }
+
+    @Test
+    void export_vcardEscapesTextAndUsesCrlf() throws Exception {
+        String vcf = export(ContactExportFormat.VCF, new AtomicBoolean());
+
+        assertTrue(vcf.startsWith("BEGIN:VCARD\r\nVERSION:3.0\r\nUID:" + ANN + "\r\n"));
+        assertTrue(vcf.contains("N:Lee\\, Jr;Ann;;Dr;\r\nFN:Dr Ann Lee\\, Jr\r\n"));
+        assertTrue(vcf.contains("EMAIL;TYPE=WORK:ann@work.com\r\n"));
+        assertTrue(vcf.contains("TEL;TYPE=HOME:+15550001\r\n"));
+        assertTrue(vcf.contains("FN:Bob \"B\"\r\n"));
+        assertEquals(2, vcf.split("END:VCARD\r\n", -1).length - 1);
+    }
+
+    @Test
+    void vcardText_escapesSeparatorsAndNewlines() {
+        assertEquals("a\\;b\\\\c\\nd", ContactExportService.vcardText("a;b\\c\r\nd"));
+    }
+
+    @Test
+    void from_rejectsUnknownFormat() {
+        assertEquals(ContactExportFormat.VCF, ContactExportFormat.from("vcf"));
+        assertThrows(BadRequestException.class, () -> ContactExportFormat.from("xml"));
+    }
+}
@@ -0,0 +1,154 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactImportJobDto;
+import com.abbasza.contactapi.error.BadRequestException;
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.type.ImportStatus;
+import com.abbasza.contactapi.repository.ContactBulkWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactImportServiceTest {
+
+    @Mock
+    private ContactBulkWriter contactBulkWriter;
+    @Mock
+    private ContactSearchEngine contactSearchEngine;
+    @Mock
+    private UserService userService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService executor;
+    private ContactImportService contactImportService;
+
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        contactImportService = new ContactImportService(contactBulkWriter, contactSearchEngine, userService,
+                new TransactionTemplate(transactionManager), executor, 2, 1, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static Path spool(String content) throws Exception {
+        Path path = Files.createTempFile("contact-import-test-", ".csv");
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+        return path;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_writesValidRowsInChunksAndReportsInvalidOnes() throws Exception {
+        Path spool = spool("\uFEFFfirstname,lastname,emails\nA,One,WORK:a@x.com\n,Missing,\nB,Two,\nC,Three,\nD,Four,FAX:d@x.com\n");
+        ContactImportJob job = new ContactImportJob(USER_ID, ContactImportFormat.CSV, 1);
+        when(userService.incrementContactsVersion(USER_ID)).thenReturn(4L, 5L);
+
+        contactImportService.run(job, spool);
+
+        ArgumentCaptor<List<Contact>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(contactBulkWriter, times(2)).insert(eq(USER_ID), chunks.capture());
+        assertEquals(List.of(2, 1), chunks.getAllValues().stream().map(List::size).toList());
+        assertEquals(List.of(4L, 4L, 5L), chunks.getAllValues().stream().flatMap(List::stream).map(Contact::getChangeVersion).toList());
+        verify(contactSearchEngine, times(3)).onContactSaved(eq(USER_ID), any());
+        verify(userService, times(2)).incrementContactsVersion(USER_ID);
+
+        ContactImportJobDto result = job.toDto();
+        assertEquals(ImportStatus.COMPLETED, result.getStatus());
+        assertEquals(5, result.getRowsRead());
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(3, result.getErrors().get(0).getLine());
+        assertEquals("firstname is required", result.getErrors().get(0).getError());
+        assertTrue(result.isErrorsTruncated());
+        assertFalse(Files.exists(spool));
+    }
+
+    @Test
+    void run_failsOnlyTheRowsOfAChunkThatCannotBeWritten() throws Exception {
+        Path spool = spool("firstname\nA\nB\nC\n");
+        doThrow(new DataIntegrityViolationException("boom")).doNothing()
+                .when(contactBulkWriter).insert(eq(USER_ID), any());
+        ContactImportJob job = new ContactImportJob(USER_ID, ContactImportFormat.CSV, 10);
+
+        contactImportService.run(job, spool);
+
+        ContactImportJobDto result = job.toDto();
+        assertEquals(ImportStatus.COMPLETED, result.getStatus());
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(2L, 3L), result.getErrors().stream().map(e -> e.getLine()).toList());
+        assertEquals("could not be saved: boom", result.getErrors().get(0).getError());
+    }
+
+    @Test
+    void run_marksJobFailedForUnreadableFile() throws Exception {
+        ContactImportJob job = new ContactImportJob(USER_ID, ContactImportFormat.CSV, 10);
+
+        contactImportService.run(job, spool("name\nA\n"));
+
+        assertEquals(ImportStatus.FAILED, job.toDto().getStatus());
+        assertEquals("CSV header must contain a firstname column", job.toDto().getMessage());
+        verifyNoInteractions(contactBulkWriter);
+    }
+
+    @Test
+    void submit_runsInBackgroundAndIsVisibleOnlyToOwner() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "contacts.vcf", "text/vcard",
+                "BEGIN:VCARD\nVERSION:3.0\nN:Doe;Jane;;;\nEND:VCARD\n".getBytes(StandardCharsets.UTF_8));
+
+        ContactImportJobDto queued = contactImportService.submit(USER_ID, file, null);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals("vcf", queued.getFormat());
+        ContactImportJobDto done = contactImportService.getJob(USER_ID, queued.getJobId()).orElseThrow();
+        assertEquals(ImportStatus.COMPLETED, done.getStatus());
+        assertEquals(1, done.getImported());
+        assertTrue(contactImportService.getJob(UUID.randomUUID(), queued.getJobId()).isEmpty());
+    }
+
+    @Test
+    void submit_rejectsUnknownFormat() {
+        MockMultipartFile file = new MockMultipartFile("file", "contacts.xlsx", null, new byte[]{1});
+
+        assertThrows(BadRequestException.class, () -> contactImportService.submit(USER_ID, file, null));
+    }
+
+    @Test
+    void submit_rejectsEmptyFile() {
+        MockMultipartFile file = new MockMultipartFile("file", "contacts.csv", null, new byte[0]);
+
+        assertThrows(BadRequestException.class, () -> contactImportService.submit(USER_ID, file, null));
+    }
+}
@@ -0,0 +1,169 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactResponseDto;
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.repository.ContactRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContactSearchIndexTest {
+
+    @Mock
+    private ContactRepo contactRepo;
+
+    private ContactSearchIndex index;
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setup() {
+        index = new ContactSearchIndex(contactRepo, 1L << 30, Duration.ofMinutes(30));
+    }
+
+    private static ContactResponseDto summary(String firstName, String lastName) {
+        return new ContactResponseDto(UUID.randomUUID(), null, firstName, lastName);
+    }
+
+    private static List<String> firstNames(List<ContactResponseDto> result) {
+        return result.stream().map(ContactResponseDto::getFirstname).toList();
+    }
+
+    @Test
+    void search_matchesSubstringOfEitherNameIgnoringCase() {
+        when(contactRepo.findContactSummariesByUserId(userId)).thenReturn(List.of(
+                summary("Johnny", "Walker"),
+                summary("Ann", "Johnson"),
+                summary("Mark", "Smith")
+        ));
+
+        List<ContactResponseDto> result = index.search(userId, "JOHN", 0, 10);
+
+        assertEquals(List.of("Ann", "Johnny"), firstNames(result));
+    }
+
+    @Test
+    void search_shortQueryScansAllContacts() {
+        when(contactRepo.findContactSummariesByUserId(userId)).thenReturn(List.of(
+                summary("Al", "Bo"),
+                summary("Cal", null)
+        ));
+
+        assertEquals(List.of("Al", "Cal"), firstNames(index.search(userId, "al", 0, 10)));
+        assertEquals(List.of("Al", "Cal"), firstNames(index.search(userId, "", 0, 10)));
+    }
+
+    @Test
+    void search_loadsOncePerUserAndHonoursPaging() {
+        List<ContactResponseDto> contacts = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            contacts.add(summary(String.format("Name%02d", i), "Test"));
+        }
+        when(contactRepo.findContactSummariesByUserId(userId)).thenReturn(contacts);
+
+        List<ContactResponseDto> first = index.search(userId, "name", 0, 10);
+        List<ContactResponseDto> second = index.search(userId, "name", 10, 10);
+
+        assertEquals("Name00", first.get(0).getFirstname());
+        assertEquals("Name10", second.get(0).getFirstname());
+        assertEquals(10, second.size());
+        verify(contactRepo, times(1)).findContactSummariesByUserId(userId);
+    }
+
+    @Test
+    void writes_areAppliedToLoadedIndex() {
+        ContactResponseDto existing = summary("Peter", "Parker");
+        when(contactRepo.findContactSummariesByUserId(userId)).thenReturn(List.of(existing));
+        index.search(userId, "pet", 0, 10);
+
+        Contact renamed = Contact.builder().id(existing.getId()).firstName("Bruce").lastName("Wayne").build();
+        Contact added = Contact.builder().id(UUID.randomUUID()).firstName("Peter").lastName("Quill").build();
+        index.onContactSaved(userId, renamed);
+        index.onContactSaved(userId, added);
+
+        assertEquals(List.of("Quill"), index.search(userId, "pet", 0, 10).stream().map(ContactResponseDto::getLastname).toList());
+        assertEquals(List.of("Bruce"), firstNames(index.search(userId, "wayne", 0, 10)));
+
+        index.onContactDeleted(userId, added.getId());
+
+        assertTrue(index.search(userId, "pet", 0, 10).isEmpty());
+    }
+
+    @Test
+    void writes_beforeFirstSearchDoNotBuildIndex() {
+        index.onContactSaved(userId, Contact.builder().id(UUID.randomUUID()).firstName("Tony").build());
+
+        assertFalse(index.isIndexed(userId));
+        verifyNoInteractions(contactRepo);
+    }
+
+    @Test
+    void memoryBudget_evictsLeastRecentlyUsedUser() {
+        index = new ContactSearchIndex(contactRepo, 1, Duration.ofMinutes(30));
+        UUID otherUserId = UUID.randomUUID();
+        when(contactRepo.findContactSummariesByUserId(any())).thenReturn(List.of(summary("Natasha", "Romanoff")));
+
+        index.search(userId, "nat", 0, 10);
+        index.search(otherUserId, "nat", 0, 10);
+
+        assertFalse(index.isIndexed(userId));
+        assertTrue(index.isIndexed(otherUserId));
+    }
+
+    @Test
+    void evict_releasesEstimatedMemory() {
+        when(contactRepo.findContactSummariesByUserId(userId)).thenReturn(List.of(summary("Steve", "Rogers")));
+        index.search(userId, "ste", 0, 10);
+        assertTrue(index.estimatedBytes() > 0);
+
+        index.evict(userId);
+
+        assertEquals(0, index.estimatedBytes());
+        assertFalse(index.isIndexed(userId));
+    }
+
+    @Test
+    void evictDuringLoad_doesNotLeaveBytesBehind() {
+        when(contactRepo.findContactSummariesByUserId(userId)).thenAnswer(invocation -> {
+            index.evict(userId);
+            return List.of(summary("Wanda", "Maximoff"));
+        });
+
+        List<ContactResponseDto> result = index.search(userId, "wan", 0, 10);
+
+        assertEquals(List.of("Wanda"), firstNames(result));
+        assertFalse(index.isIndexed(userId));
+        assertEquals(0, index.estimatedBytes());
+    }
+
+    @Test
+    void evictInterleavedWithUpserts_releasesAllBytes() throws Exception {
+        when(contactRepo.findContactSummariesByUserId(userId)).thenReturn(List.of(summary("Sam", "Wilson")));
+        index.search(userId, "sam", 0, 10);
+
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                index.onContactSaved(userId, Contact.builder().id(UUID.randomUUID()).firstName("Bucky").lastName("Barnes").build());
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            index.evict(userId);
+            index.search(userId, "sam", 0, 10);
+        }
+        writer.join();
+        index.evict(userId);
+
+        assertEquals(0, index.estimatedBytes());
+    }
+}
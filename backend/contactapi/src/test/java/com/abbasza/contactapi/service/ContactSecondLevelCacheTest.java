@@ -0,0 +1,130 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactDetailResponseDto;
+import com.abbasza.contactapi.dto.ContactEmailDto;
+import com.abbasza.contactapi.dto.ContactRequestDto;
+import com.abbasza.contactapi.model.ContactEmail;
+import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.repository.ContactEmailRepo;
+import com.abbasza.contactapi.repository.UserRepo;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO"
+})
+@ActiveProfiles({"dev", "l2cache"})
+class ContactSecondLevelCacheTest {
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private ContactEmailRepo contactEmailRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepo.save(User.builder().email(UUID.randomUUID() + "@cache.com").password("x").build());
+    }
+
+    @Test
+    void getContact_secondReadIsServedFromCache() {
+        UUID id = contactService.saveContact(user.getId(), request("John", email("john@work.com"))).getId();
+        contactService.getContact(user.getId(), id);
+
+        statistics.clear();
+        ContactDetailResponseDto cached = contactService.getContact(user.getId(), id);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals("john@work.com", cached.getEmails().get(0).getEmailvalue());
+        CacheRegionStatistics contacts = statistics.getDomainDataRegionStatistics("contacts");
+        assertEquals(1, contacts.getHitCount());
+        assertEquals(0, contacts.getMissCount());
+    }
+
+    @Test
+    void getContact_isNotServedToAnotherUser() {
+        UUID id = contactService.saveContact(user.getId(), request("John")).getId();
+        contactService.getContact(user.getId(), id);
+        User other = userRepo.save(User.builder().email(UUID.randomUUID() + "@cache.com").password("x").build());
+
+        assertThrows(EntityNotFoundException.class, () -> contactService.getContact(other.getId(), id));
+    }
+
+    @Test
+    void updateContact_childOnlyEditsEvictTheCachedContact() {
+        ContactDetailResponseDto created = contactService.saveContact(user.getId(),
+                request("John", email("old@work.com"), email("gone@work.com")));
+        contactService.getContact(user.getId(), created.getId());
+        List<UUID> emailIds = contactEmailRepo.findContactEmailsByContactId(created.getId()).stream()
+                .map(ContactEmail::getId).toList();
+        assertTrue(emailIds.stream().allMatch(id -> entityManagerFactory.getCache().contains(ContactEmail.class, id)));
+
+        ContactRequestDto edit = new ContactRequestDto();
+        edit.setVersion(created.getVersion());
+        edit.setEmails(List.of(email("new@work.com")));
+        contactService.updateContact(user.getId(), created.getId(), edit);
+        ContactDetailResponseDto reloaded = contactService.getContact(user.getId(), created.getId());
+
+        assertEquals(created.getVersion() + 1, reloaded.getVersion());
+        assertEquals(List.of("new@work.com"), reloaded.getEmails().stream().map(ContactEmailDto::getEmailvalue).toList());
+        // one row was rewritten in place, the other went with the bulk delete
+        assertEquals(1, emailIds.stream().filter(id -> entityManagerFactory.getCache().contains(ContactEmail.class, id)).count());
+    }
+
+    @Test
+    void deleteContactById_leavesNothingReadableInCache() {
+        ContactDetailResponseDto created = contactService.saveContact(user.getId(), request("John", email("john@work.com")));
+        contactService.getContact(user.getId(), created.getId());
+        UUID emailId = contactEmailRepo.findContactEmailsByContactId(created.getId()).get(0).getId();
+        assertTrue(entityManagerFactory.getCache().contains(ContactEmail.class, emailId));
+
+        contactService.deleteContactById(user.getId(), created.getId());
+
+        statistics.clear();
+        assertThrows(EntityNotFoundException.class, () -> contactService.getContact(user.getId(), created.getId()));
+        assertEquals(0, statistics.getDomainDataRegionStatistics("contacts").getHitCount());
+        assertEquals(0, statistics.getDomainDataRegionStatistics("contacts_emails").getHitCount());
+        assertTrue(contactEmailRepo.findContactEmailsByContactId(created.getId()).isEmpty());
+    }
+
+    private static ContactRequestDto request(String firstname, ContactEmailDto... emails) {
+        ContactRequestDto request = new ContactRequestDto();
+        request.setFirstname(firstname);
+        request.setEmails(new ArrayList<>(List.of(emails)));
+        return request;
+    }
+
+    private static ContactEmailDto email(String value) {
+        ContactEmailDto email = new ContactEmailDto();
+        email.setEmailtype(EmailType.WORK);
+        email.setEmailvalue(value);
+        return email;
+    }
+}
@@ -0,0 +1,79 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactEmailDto;
+import com.abbasza.contactapi.dto.ContactPhoneDto;
+import com.abbasza.contactapi.dto.ContactRequestDto;
+import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+import com.abbasza.contactapi.repository.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contact deletes leave the emails and phones to the foreign keys' {@code ON DELETE CASCADE}; this runs against the
+ * Hibernate-generated H2 schema, {@link PostgresContactServiceCascadeTest} against {@code schema.sql}.
+ */
+@SpringBootTest(properties = {
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO"
+})
+@ActiveProfiles("dev")
+class ContactServiceCascadeTest {
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deleteContactById_removesEmailsAndPhones() {
+        User user = userRepo.save(User.builder().email(UUID.randomUUID() + "@cascade.com").password("x").build());
+        ContactRequestDto request = new ContactRequestDto();
+        request.setFirstname("John");
+        request.setEmails(List.of(email("john@work.com"), email("john@home.com")));
+        request.setPhones(List.of(phone("555-1"), phone("555-2")));
+        UUID id = contactService.saveContact(user.getId(), request).getId();
+        UUID other = contactService.saveContact(user.getId(), request).getId();
+        assertEquals(2, children("contact_email", id));
+        assertEquals(2, children("contact_phone", id));
+
+        contactService.deleteContactById(user.getId(), id);
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM contacts WHERE id = ?", Integer.class, id));
+        assertEquals(0, children("contact_email", id));
+        assertEquals(0, children("contact_phone", id));
+        assertEquals(2, children("contact_email", other));
+        assertEquals(2, children("contact_phone", other));
+    }
+
+    private int children(String table, UUID contactId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE contact_id = ?", Integer.class, contactId);
+    }
+
+    private static ContactEmailDto email(String value) {
+        ContactEmailDto email = new ContactEmailDto();
+        email.setEmailtype(EmailType.WORK);
+        email.setEmailvalue(value);
+        return email;
+    }
+
+    private static ContactPhoneDto phone(String value) {
+        ContactPhoneDto phone = new ContactPhoneDto();
+        phone.setPhonetype(PhoneType.PERSONAL);
+        phone.setPhonevalue(value);
+        return phone;
+    }
+}
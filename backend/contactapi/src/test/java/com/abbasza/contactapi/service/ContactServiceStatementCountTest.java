@@ -0,0 +1,211 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.config.StatementCounter;
+import com.abbasza.contactapi.dto.ContactDetailResponseDto;
+import com.abbasza.contactapi.dto.ContactEmailDto;
+import com.abbasza.contactapi.dto.ContactPhoneDto;
+import com.abbasza.contactapi.dto.ContactRequestDto;
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+import com.abbasza.contactapi.repository.ContactRepo;
+import com.abbasza.contactapi.repository.UserRepo;
+import net.ttddyy.dsproxy.QueryType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@ActiveProfiles("dev")
+@Import(StatementCounter.Config.class)
+class ContactServiceStatementCountTest {
+
+    @Autowired
+    private ContactService contactService;
+
+    @Autowired
+    private ContactRepo contactRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Test
+    void saveContact_statementCountDoesNotGrowWithAddressBook() {
+        List<String> small = statementsForCreate("small@statements.com", 10);
+        List<String> large = statementsForCreate("large@statements.com", 10_000);
+
+        assertEquals(small, large);
+        // contact-list version bump and read, then contact, email and phone inserts
+        StatementCounter.assertSelects(1);
+        StatementCounter.assertUpdates(1);
+        StatementCounter.assertInserts(3);
+        StatementCounter.assertTotal(5);
+    }
+
+    @Test
+    void updateContact_editingOnePhoneRewritesOnlyThatRow() {
+        User user = userRepo.save(User.builder().email("update@statements.com").password("x").build());
+        List<ContactPhoneDto> phones = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            phones.add(phone("555-" + i));
+        }
+        ContactRequestDto request = new ContactRequestDto();
+        request.setFirstname("John");
+        request.setPhones(phones);
+        ContactDetailResponseDto created = contactService.saveContact(user.getId(), request);
+
+        phones.set(7, phone("555-edited"));
+        ContactRequestDto edit = new ContactRequestDto();
+        edit.setVersion(0L);
+        edit.setPhones(phones);
+
+        StatementCounter.reset();
+        ContactDetailResponseDto updated = contactService.updateContact(user.getId(), created.getId(), edit);
+
+        // contact, emails and phones lookups, one phone update, contact-list version bump and read, one contact update
+        StatementCounter.assertSelects(4);
+        StatementCounter.assertUpdates(3);
+        StatementCounter.assertTotal(7);
+        assertEquals(0, StatementCounter.count(QueryType.INSERT) + StatementCounter.count(QueryType.DELETE));
+        assertEquals(1L, updated.getVersion());
+        assertEquals(Optional.of(1L), contactService.getContactVersion(user.getId(), created.getId()));
+        assertEquals(2L, contactService.getContactsVersion(user.getId()));
+        assertEquals("555-edited", updated.getPhones().get(7).getPhonevalue());
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> contactService.updateContact(user.getId(), created.getId(), edit));
+    }
+
+    @Test
+    void updateContact_removedPhonesGoInOneDelete() {
+        User user = userRepo.save(User.builder().email("shrink@statements.com").password("x").build());
+        List<ContactPhoneDto> phones = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            phones.add(phone("555-" + i));
+        }
+        ContactRequestDto request = new ContactRequestDto();
+        request.setFirstname("John");
+        request.setPhones(phones);
+        ContactDetailResponseDto created = contactService.saveContact(user.getId(), request);
+
+        ContactRequestDto edit = new ContactRequestDto();
+        edit.setVersion(0L);
+        edit.setPhones(phones.subList(0, 2));
+
+        StatementCounter.reset();
+        ContactDetailResponseDto updated = contactService.updateContact(user.getId(), created.getId(), edit);
+
+        StatementCounter.assertDeletes(1);
+        assertEquals(2, updated.getPhones().size());
+    }
+
+    @Test
+    void getContacts_loadsAnyNumberOfContactsInThreeStatements() {
+        User user = userRepo.save(User.builder().email("details@statements.com").password("x").build());
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            ContactRequestDto request = new ContactRequestDto();
+            request.setFirstname("Contact" + i);
+            request.setPhones(List.of(phone("555-" + i), phone("556-" + i)));
+            ids.add(contactService.saveContact(user.getId(), request).getId());
+        }
+        StatementCounter.reset();
+        List<ContactDetailResponseDto> few = contactService.getContacts(user.getId(), ids.subList(0, 2));
+        List<String> fewStatements = StatementCounter.statements();
+
+        StatementCounter.reset();
+        List<ContactDetailResponseDto> all = contactService.getContacts(user.getId(), ids);
+
+        // contacts, then one subselect each for emails and phones
+        assertEquals(3, fewStatements.size());
+        StatementCounter.assertSelects(3);
+        StatementCounter.assertTotal(3);
+        assertEquals(2, few.size());
+        assertEquals(25, all.size());
+        assertEquals("Contact24", all.get(24).getFirstname());
+        assertEquals(2, all.get(24).getPhones().size());
+
+        StatementCounter.reset();
+        contactService.getContact(user.getId(), ids.get(0));
+        // contact joined with emails, then phones
+        StatementCounter.assertSelects(2);
+        StatementCounter.assertTotal(2);
+
+        StatementCounter.reset();
+        contactService.getAllContacts(user.getId(), 0, 10);
+        // page, then count
+        StatementCounter.assertSelects(2);
+        StatementCounter.assertTotal(2);
+
+        StatementCounter.reset();
+        contactService.getContactsAfter(user.getId(), null, 10);
+        StatementCounter.assertSelects(1);
+        StatementCounter.assertTotal(1);
+    }
+
+    @Test
+    void deleteContactById_staysWithinBudget() {
+        User user = userRepo.save(User.builder().email("delete@statements.com").password("x").build());
+        ContactRequestDto request = new ContactRequestDto();
+        request.setFirstname("John");
+        request.setPhones(List.of(phone("555-1"), phone("555-2")));
+        UUID id = contactService.saveContact(user.getId(), request).getId();
+
+        StatementCounter.reset();
+        contactService.deleteContactById(user.getId(), id);
+
+        // ownership check, version bump and read, tombstone insert, contact delete;
+        // emails and phones go through the database's cascade without being loaded
+        StatementCounter.assertSelects(2);
+        StatementCounter.assertDeletes(1);
+        StatementCounter.assertUpdates(1);
+        StatementCounter.assertInserts(1);
+        StatementCounter.assertTotal(5);
+    }
+
+    private static ContactPhoneDto phone(String value) {
+        ContactPhoneDto phone = new ContactPhoneDto();
+        phone.setPhonetype(PhoneType.PERSONAL);
+        phone.setPhonevalue(value);
+        return phone;
+    }
+
+    private List<String> statementsForCreate(String username, int existingContacts) {
+        User user = userRepo.save(User.builder().email(username).password("x").build());
+        List<Contact> contacts = new ArrayList<>(existingContacts);
+        for (int i = 0; i < existingContacts; i++) {
+            contacts.add(Contact.builder().firstName("Contact" + i).user(user).build());
+        }
+        contactRepo.saveAll(contacts);
+
+        ContactEmailDto email = new ContactEmailDto();
+        email.setEmailtype(EmailType.WORK);
+        email.setEmailvalue("john@work.com");
+        ContactPhoneDto phone = new ContactPhoneDto();
+        phone.setPhonetype(PhoneType.PERSONAL);
+        phone.setPhonevalue("123");
+        ContactRequestDto request = new ContactRequestDto();
+        request.setFirstname("John");
+        request.setEmails(List.of(email));
+        request.setPhones(List.of(phone));
+
+        StatementCounter.reset();
+        contactService.saveContact(user.getId(), request);
+        return StatementCounter.statements();
+    }
+}
@@ -1,12 +1,16 @@
 package com.abbasza.contactapi.service;
 
 import com.abbasza.contactapi.dto.*;
+import com.abbasza.contactapi.error.BadRequestException;
+import com.abbasza.contactapi.mapper.ContactMapper;
+import com.abbasza.contactapi.mapper.ContactMapperImpl;
 import com.abbasza.contactapi.model.Contact;
 import com.abbasza.contactapi.model.ContactEmail;
 import com.abbasza.contactapi.model.ContactPhone;
 import com.abbasza.contactapi.model.User;
 import com.abbasza.contactapi.model.type.EmailType;
 import com.abbasza.contactapi.model.type.PhoneType;
+import com.abbasza.contactapi.repository.ContactCache;
 import com.abbasza.contactapi.repository.ContactEmailRepo;
 import com.abbasza.contactapi.repository.ContactPhoneRepo;
 import com.abbasza.contactapi.repository.ContactRepo;
@@ -16,16 +20,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -46,8 +54,14 @@ class ContactServiceTest {
     private ContactPhoneRepo contactPhoneRepo;
     @Mock
     private UserService userService;
+    @Spy
+    private ContactMapper contactMapper = new ContactMapperImpl();
     @Mock
-    private ModelMapper modelMapper;
+    private ContactSearchEngine contactSearchEngine;
+    @Mock
+    private ContactCache contactCache;
+    @Mock
+    private ContactChangeService contactChangeService;
 
     private User user;
     private Contact contact;
@@ -74,33 +88,63 @@ class ContactServiceTest {
 
     @Test
     void getAllContacts_success() {
-        Page<Contact> page =
-                new PageImpl<>(List.of(contact));
+        Page<ContactResponseDto> page =
+                new PageImpl<>(List.of(new ContactResponseDto(contact.getId(), null, "John", null)));
 
-        when(userService.findUserByUsername(anyString())).thenReturn(user);
-        when(contactRepo.findContactsByUserId(eq(user.getId()), any(PageRequest.class)))
+        when(contactRepo.findContactSummariesByUserId(eq(user.getId()), any(PageRequest.class)))
                 .thenReturn(page);
-        when(modelMapper.map(any(Contact.class), eq(ContactResponseDto.class)))
-                .thenReturn(new ContactResponseDto());
 
         Page<ContactResponseDto> result =
-                contactService.getAllContacts(user.getUsername(), 0, 10);
+                contactService.getAllContacts(user.getId(), 0, 10);
 
         assertEquals(1, result.getTotalElements());
-        verify(contactRepo).findContactsByUserId(eq(user.getId()), any());
+        verify(contactRepo).findContactSummariesByUserId(eq(user.getId()), any(PageRequest.class));
+    }
+
+
+    @Test
+    void getContactsAfter_returnsNextCursorWhenMoreRowsExist() {
+        ContactResponseDto first = new ContactResponseDto(contact.getId(), null, "John", null);
+        ContactResponseDto second = new ContactResponseDto(UUID.randomUUID(), null, "Zed", null);
+
+        when(contactRepo.findFirstContactSummariesByUserId(user.getId(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second));
+
+        ContactSliceResponseDto result = contactService.getContactsAfter(user.getId(), "", 1);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(ContactCursor.of(first), ContactCursor.decode(result.getNextCursor()));
     }
 
+    @Test
+    void getContactsAfter_usesNullLastNameQueryForNullCursorLastName() {
+        ContactCursor cursor = new ContactCursor("Cher", null, UUID.randomUUID());
+
+        when(contactRepo.findContactSummariesByUserIdAfterNullLastName(user.getId(), "Cher", cursor.getId(), PageRequest.of(0, 11)))
+                .thenReturn(List.of());
+
+        ContactSliceResponseDto result = contactService.getContactsAfter(user.getId(), cursor.encode(), 10);
+
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getContactsAfter_rejectsPageSizeBelowOne() {
+        assertThrows(BadRequestException.class,
+                () -> contactService.getContactsAfter(user.getId(), "", 0));
+    }
 
     @Test
     void getContact_success() {
-        when(userService.findUserByUsername(any())).thenReturn(user);
-        when(contactRepo.findContactByIdAndUserId(contact.getId(), user.getId()))
+        when(contactRepo.findContactDetailByIdAndUserId(contact.getId(), user.getId()))
                 .thenReturn(Optional.of(contact));
-        when(modelMapper.map(any(Contact.class), eq(ContactDetailResponseDto.class)))
+        when(contactMapper.toContactDetailResponse(any(Contact.class)))
                 .thenReturn(new ContactDetailResponseDto());
 
         ContactDetailResponseDto dto =
-                contactService.getContact(user.getUsername(), contact.getId());
+                contactService.getContact(user.getId(), contact.getId());
 
         assertNotNull(dto);
     }
@@ -108,12 +152,32 @@ class ContactServiceTest {
 
     @Test
     void getContact_notFound() {
-        when(userService.findUserByUsername(any())).thenReturn(user);
-        when(contactRepo.findContactByIdAndUserId(any(), any()))
+        when(contactRepo.findContactDetailByIdAndUserId(any(), any()))
                 .thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
-                () -> contactService.getContact(user.getUsername(), UUID.randomUUID()));
+                () -> contactService.getContact(user.getId(), UUID.randomUUID()));
+    }
+
+
+    @Test
+    void getContacts_returnsOwnedContactsInRequestOrder() {
+        Contact second = Contact.builder().id(UUID.randomUUID()).firstName("Zed").user(user).build();
+        UUID missing = UUID.randomUUID();
+
+        when(contactRepo.findContactsByIdInAndUserId(Set.of(second.getId(), missing, contact.getId()), user.getId()))
+                .thenReturn(List.of(contact, second));
+
+        List<ContactDetailResponseDto> result =
+                contactService.getContacts(user.getId(), List.of(second.getId(), missing, contact.getId(), second.getId()));
+
+        assertEquals(List.of("Zed", "John"), result.stream().map(ContactDetailResponseDto::getFirstname).toList());
+    }
+
+    @Test
+    void getContacts_rejectsEmptyRequest() {
+        assertThrows(BadRequestException.class,
+                () -> contactService.getContacts(user.getId(), List.of()));
     }
 
 
@@ -121,17 +185,14 @@ class ContactServiceTest {
 
     @Test
     void getSearchContacts_success() {
-        when(userService.findUserByUsername(anyString())).thenReturn(user);
-        when(contactRepo.findContactByFirstNameOrLastName(user.getId(), "jo"))
-                .thenReturn(List.of(contact));
-        when(modelMapper.map(any(Contact.class), eq(ContactResponseDto.class)))
-                .thenReturn(new ContactResponseDto());
+        when(contactSearchEngine.search(user.getId(), "jo", PageRequest.of(1, 5)))
+                .thenReturn(List.of(new ContactResponseDto()));
 
         List<ContactResponseDto> result =
-                contactService.getSearchContacts(user.getUsername(), "jo");
+                contactService.getSearchContacts(user.getId(), "jo", 1, 5);
 
         assertEquals(1, result.size());
-        verify(contactRepo).findContactByFirstNameOrLastName(user.getId(), "jo");
+        verifyNoInteractions(contactRepo);
     }
 
     // ========== SAVE CONTACTS ==========
@@ -141,18 +202,19 @@ class ContactServiceTest {
         ContactRequestDto request = new ContactRequestDto();
         request.setFirstname("John");
 
-        when(userService.findUserByUsername(any())).thenReturn(user);
+        when(userService.getUserReference(user.getId())).thenReturn(user);
         when(contactRepo.save(any(Contact.class)))
                 .thenAnswer(i -> i.getArgument(0));
-        when(modelMapper.map(any(), eq(ContactDetailResponseDto.class)))
+        when(contactMapper.toContactDetailResponse(any(Contact.class)))
                 .thenReturn(new ContactDetailResponseDto());
 
         ContactDetailResponseDto result =
-                contactService.saveContact(user.getUsername(), request);
+                contactService.saveContact(user.getId(), request);
 
         assertNotNull(result);
         verify(contactEmailRepo, never()).save(any());
         verify(contactPhoneRepo, never()).save(any());
+        verify(userService).incrementContactsVersion(user.getId());
     }
 
     @Test
@@ -171,91 +233,193 @@ class ContactServiceTest {
         request.setEmails(List.of(emailDto));
         request.setPhones(List.of(phoneDto));
 
-        when(userService.findUserByUsername(any())).thenReturn(user);
+        when(userService.getUserReference(user.getId())).thenReturn(user);
         when(contactRepo.save(any(Contact.class)))
                 .thenAnswer(i -> i.getArgument(0));
-        when(contactEmailRepo.save(any()))
-                .thenAnswer(i -> i.getArgument(0));
-        when(contactPhoneRepo.save(any()))
-                .thenAnswer(i -> i.getArgument(0));
-        when(modelMapper.map(any(Contact.class), eq(ContactDetailResponseDto.class)))
+        when(contactMapper.toContactDetailResponse(any(Contact.class)))
                 .thenReturn(new ContactDetailResponseDto());
 
         ContactDetailResponseDto dto =
-                contactService.saveContact(user.getUsername(), request);
+                contactService.saveContact(user.getId(), request);
 
         assertNotNull(dto);
-        verify(contactRepo, atLeastOnce()).save(any());
-        verify(userService).updateUser(user);
+        verify(contactRepo).save(argThat(saved -> saved.getUser() == user
+                && saved.getEmails().get(0).getContact() == saved
+                && saved.getPhones().get(0).getContact() == saved));
+        verify(contactEmailRepo, never()).save(any());
+        verify(contactPhoneRepo, never()).save(any());
+        verify(userService, never()).updateUser(any(User.class));
     }
 
     @Test
-    void saveContactEmail_whenEmailListIsNull() {
-        contact.setEmails(null);
-
-        ContactEmailDto dto = new ContactEmailDto();
-        dto.setEmailtype(EmailType.WORK);
-        dto.setEmailvalue("a@b.com");
+    void saveContacts_persistsValidItemsOnceAndReportsInvalidOnes() {
+        ContactRequestDto valid = new ContactRequestDto();
+        valid.setFirstname("John");
+        ContactEmailDto emailDto = new ContactEmailDto();
+        emailDto.setEmailtype(EmailType.WORK);
+        emailDto.setEmailvalue("john@work.com");
+        valid.setEmails(List.of(emailDto));
+
+        ContactRequestDto invalid = new ContactRequestDto();
+        invalid.setLastname("Nameless");
+
+        when(userService.getUserReference(user.getId())).thenReturn(user);
+        when(contactRepo.saveAll(anyList())).thenAnswer(i -> {
+            List<Contact> contacts = i.getArgument(0);
+            contacts.forEach(c -> c.setId(UUID.randomUUID()));
+            return contacts;
+        });
+
+        List<ContactBatchResultDto> results =
+                contactService.saveContacts(user.getId(), List.of(valid, invalid));
+
+        assertEquals(2, results.size());
+        assertEquals(HttpStatus.CREATED, results.get(0).getStatus());
+        assertNotNull(results.get(0).getId());
+        assertEquals(HttpStatus.BAD_REQUEST, results.get(1).getStatus());
+        assertEquals(1, results.get(1).getIndex());
+        verify(contactRepo).saveAll(argThat(contacts -> {
+            Contact saved = ((List<Contact>) contacts).get(0);
+            return ((List<Contact>) contacts).size() == 1
+                    && saved.getUser() == user
+                    && saved.getEmails().get(0).getContact() == saved;
+        }));
+        verify(contactRepo, never()).save(any());
+        verify(contactEmailRepo, never()).save(any());
+        verify(contactSearchEngine).onContactSaved(eq(user.getId()), any(Contact.class));
+        verify(userService).incrementContactsVersion(user.getId());
+    }
 
-        when(contactEmailRepo.save(any())).thenAnswer(i -> i.getArgument(0));
+    @Test
+    void saveContacts_rejectsEmptyBatch() {
+        assertThrows(BadRequestException.class,
+                () -> contactService.saveContacts(user.getId(), List.of()));
+    }
 
-        Contact result =
-                contactService.saveContactEmail(contact, List.of(dto));
+    @Test
+    void saveContacts_rejectsOversizedBatch() {
+        List<ContactRequestDto> batch = Collections.nCopies(1001, new ContactRequestDto());
 
-        assertEquals(1, result.getEmails().size());
+        assertThrows(BadRequestException.class,
+                () -> contactService.saveContacts(user.getId(), batch));
+        verifyNoInteractions(contactRepo);
     }
 
     @Test
     void saveContact_exceptionThrown() {
-        when(userService.findUserByUsername(any()))
+        when(userService.getUserReference(any()))
                 .thenThrow(new RuntimeException("DB error"));
 
         assertThrows(IllegalArgumentException.class,
-                () -> contactService.saveContact(user.getUsername(), new ContactRequestDto()));
+                () -> contactService.saveContact(user.getId(), new ContactRequestDto()));
     }
 
     // ========== UPDATE CONTACTS ==========
 
     @Test
-    void updateContact_withEmailAndPhoneCleanup() {
+    void updateContact_mergesChildrenInPlace() {
         UUID id = contact.getId();
 
-        ContactEmail oldEmail = ContactEmail.builder().id(UUID.randomUUID()).build();
-        ContactPhone oldPhone = ContactPhone.builder().id(UUID.randomUUID()).build();
+        ContactEmail kept = ContactEmail.builder().id(UUID.randomUUID()).contact(contact)
+                .emailType(EmailType.WORK).emailValue("john@work.com").build();
+        ContactEmail rewritten = ContactEmail.builder().id(UUID.randomUUID()).contact(contact)
+                .emailType(EmailType.PERSONAL).emailValue("old@home.com").build();
+        ContactPhone phone = ContactPhone.builder().id(UUID.randomUUID()).contact(contact)
+                .phoneType(PhoneType.PERSONAL).phoneValue("123").build();
 
         ContactRequestDto request = new ContactRequestDto();
-        request.setEmails(List.of(new ContactEmailDto()));
-        request.setPhones(List.of(new ContactPhoneDto()));
+        request.setEmails(List.of(email(EmailType.PERSONAL, "new@home.com"), email(EmailType.WORK, "john@work.com")));
+        request.setPhones(List.of(phone(PhoneType.PERSONAL, "123"), phone(PhoneType.WORK, "456")));
+
+        when(contactRepo.findContactByIdAndUserId(id, user.getId())).thenReturn(Optional.of(contact));
+        when(contactEmailRepo.findContactEmailsByContactId(id)).thenReturn(List.of(kept, rewritten));
+        when(userService.incrementContactsVersion(user.getId())).thenReturn(7L);
+        when(contactPhoneRepo.findContactPhoneByContactId(id)).thenReturn(List.of(phone));
+
+        ContactDetailResponseDto result = contactService.updateContact(user.getId(), id, request);
+
+        assertEquals("new@home.com", rewritten.getEmailValue());
+        assertEquals("john@work.com", kept.getEmailValue());
+        assertEquals(2, result.getEmails().size());
+        assertEquals(2, result.getPhones().size());
+        verify(contactEmailRepo, never()).saveAll(any());
+        verify(contactEmailRepo, never()).deleteAllByIdInBatch(any());
+        verify(contactPhoneRepo).saveAll(argThat(inserts -> ((List<ContactPhone>) inserts).size() == 1
+                && ((List<ContactPhone>) inserts).get(0).getPhoneValue().equals("456")));
+        verify(contactPhoneRepo, never()).deleteAllByIdInBatch(any());
+        verify(contactCache).evict(id);
+        verify(userService).incrementContactsVersion(user.getId());
+        assertEquals(7L, contact.getChangeVersion());
+        assertNotNull(contact.getUpdatedAt());
+    }
 
-        when(userService.findUserByUsername(any())).thenReturn(user);
-        when(contactRepo.findContactByIdAndUserId(id, user.getId()))
-                .thenReturn(Optional.of(contact));
-        when(contactEmailRepo.findContactEmailsByContactId(id))
-                .thenReturn(List.of(oldEmail));
-        when(contactPhoneRepo.findContactPhoneByContactId(id))
-                .thenReturn(List.of(oldPhone));
-        when(contactEmailRepo.save(any())).thenAnswer(i -> i.getArgument(0));
-        when(contactPhoneRepo.save(any())).thenAnswer(i -> i.getArgument(0));
-        when(contactRepo.save(any())).thenAnswer(i -> i.getArgument(0));
-        when(modelMapper.map(any(), eq(ContactDetailResponseDto.class)))
-                .thenReturn(new ContactDetailResponseDto());
+    @Test
+    void updateContact_unchangedContact_keepsListVersion() {
+        ContactRequestDto request = new ContactRequestDto();
+        request.setFirstname("John");
+
+        when(contactRepo.findContactByIdAndUserId(contact.getId(), user.getId())).thenReturn(Optional.of(contact));
 
-        contactService.updateContact(user.getUsername(), id, request);
+        contactService.updateContact(user.getId(), contact.getId(), request);
 
-        verify(contactEmailRepo).deleteById(oldEmail.getId());
-        verify(contactPhoneRepo).deleteById(oldPhone.getId());
+        verify(userService, never()).incrementContactsVersion(any());
+        assertNull(contact.getUpdatedAt());
     }
 
+    @Test
+    void updateContact_bulkDeletesRemovedChildren() {
+        UUID id = contact.getId();
+        contact.setVersion(3L);
+
+        ContactEmail kept = ContactEmail.builder().id(UUID.randomUUID()).contact(contact)
+                .emailType(EmailType.WORK).emailValue("john@work.com").build();
+        ContactEmail removed1 = ContactEmail.builder().id(UUID.randomUUID()).contact(contact)
+                .emailType(EmailType.OTHER).emailValue("a@b.com").build();
+        ContactEmail removed2 = ContactEmail.builder().id(UUID.randomUUID()).contact(contact)
+                .emailType(EmailType.OTHER).emailValue("c@d.com").build();
+
+        ContactRequestDto request = new ContactRequestDto();
+        request.setVersion(3L);
+        request.setFirstname("Johnny");
+        request.setEmails(List.of(email(EmailType.WORK, "john@work.com")));
+
+        when(contactRepo.findContactByIdAndUserId(id, user.getId())).thenReturn(Optional.of(contact));
+        when(contactEmailRepo.findContactEmailsByContactId(id)).thenReturn(List.of(kept, removed1, removed2));
+
+        ContactDetailResponseDto result = contactService.updateContact(user.getId(), id, request);
+
+        assertEquals("Johnny", result.getFirstname());
+        verify(contactEmailRepo).deleteAllByIdInBatch(List.of(removed1.getId(), removed2.getId()));
+        verify(contactCache).evictEntities(ContactEmail.class, List.of(removed1.getId(), removed2.getId()));
+        verify(contactEmailRepo, never()).deleteById(any());
+        verify(contactCache).evict(id);
+        verify(contactRepo).flush();
+    }
+
+    @Test
+    void updateContact_staleVersion_isRejected() {
+        contact.setVersion(4L);
+        ContactRequestDto request = new ContactRequestDto();
+        request.setVersion(3L);
+        request.setFirstname("Johnny");
+
+        when(contactRepo.findContactByIdAndUserId(contact.getId(), user.getId())).thenReturn(Optional.of(contact));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> contactService.updateContact(user.getId(), contact.getId(), request));
+        assertEquals("John", contact.getFirstName());
+        verify(contactRepo, never()).flush();
+        verify(userService, never()).incrementContactsVersion(any());
+    }
 
     @Test
     void updateContact_notFound_branch() {
-        when(userService.findUserByUsername(any())).thenReturn(user);
         when(contactRepo.findContactByIdAndUserId(any(), any()))
                 .thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class,
                 () -> contactService.updateContact(
-                        user.getUsername(), UUID.randomUUID(), new ContactRequestDto()));
+                        user.getId(), UUID.randomUUID(), new ContactRequestDto()));
     }
 
     @Test
@@ -272,6 +436,20 @@ class ContactServiceTest {
         assertEquals("Doe", updated.getLastName());
     }
 
+    private static ContactEmailDto email(EmailType type, String value) {
+        ContactEmailDto dto = new ContactEmailDto();
+        dto.setEmailtype(type);
+        dto.setEmailvalue(value);
+        return dto;
+    }
+
+    private static ContactPhoneDto phone(PhoneType type, String value) {
+        ContactPhoneDto dto = new ContactPhoneDto();
+        dto.setPhonetype(type);
+        dto.setPhonevalue(value);
+        return dto;
+    }
+
     private Contact invokeUpdateContactName(ContactRequestDto req, Contact c) {
         try {
             Method m = ContactService.class
@@ -288,26 +466,31 @@ class ContactServiceTest {
 
     @Test
     void deleteContact_success() {
-        when(userService.findUserByUsername(any())).thenReturn(user);
         when(contactRepo.findContactByIdAndUserId(contact.getId(), user.getId()))
                 .thenReturn(Optional.of(contact));
 
+        when(userService.incrementContactsVersion(user.getId())).thenReturn(9L);
+
         boolean result =
-                contactService.deleteContactById(user.getUsername(), contact.getId());
+                contactService.deleteContactById(user.getId(), contact.getId());
 
         assertTrue(result);
         verify(contactRepo).deleteById(contact.getId());
+        verify(contactCache).evict(contact.getId());
+        verify(contactChangeService).recordDeletion(user.getId(), contact.getId(), 9L);
+        verify(contactSearchEngine).onContactDeleted(user.getId(), contact.getId());
+        // emails and phones are left to the database's ON DELETE CASCADE
+        verifyNoInteractions(contactEmailRepo, contactPhoneRepo);
     }
 
 
     @Test
     void deleteContact_notFound() {
-        when(userService.findUserByUsername(any())).thenReturn(user);
         when(contactRepo.findContactByIdAndUserId(any(), any()))
                 .thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
                 () -> contactService.deleteContactById(
-                        user.getUsername(), UUID.randomUUID()));
+                        user.getId(), UUID.randomUUID()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactRequestDto;
+import com.abbasza.contactapi.model.type.EmailType;
+import com.abbasza.contactapi.model.type.PhoneType;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactVcardImportReaderTest {
+
+    private static List<ContactImportRecord> readAll(String vcf) throws IOException {
+        List<ContactImportRecord> records = new ArrayList<>();
+        try (ContactVcardImportReader reader = new ContactVcardImportReader(new BufferedReader(new StringReader(vcf)))) {
+            ContactImportRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void next_readsExportedCardsWithEscapesAndFolding() throws IOException {
+        List<ContactImportRecord> records = readAll("BEGIN:VCARD\r\nVERSION:3.0\r\n"
+                + "UID:00000000-0000-0000-0000-000000000001\r\n"
+                + "N:Lee\\, Jr;Ann;;Dr;\r\n"
+                + "FN:Dr Ann Lee\\, Jr\r\n"
+                + "EMAIL;TYPE=WORK:ann@wo\r\n rk.com\r\n"
+                + "TEL;TYPE=PERSONAL:+15550001\r\n"
+                + "END:VCARD\r\n"
+                + "BEGIN:VCARD\r\nVERSION:3.0\r\nFN:Bob\r\nEND:VCARD\r\n");
+
+        assertEquals(2, records.size());
+        ContactRequestDto ann = records.get(0).getContact();
+        assertEquals(1, records.get(0).getLine());
+        assertEquals("Lee, Jr", ann.getLastname());
+        assertEquals("Ann", ann.getFirstname());
+        assertEquals("Dr", ann.getTitle());
+        assertEquals("ann@work.com", ann.getEmails().get(0).getEmailvalue());
+        assertEquals(EmailType.WORK, ann.getEmails().get(0).getEmailtype());
+        assertEquals(PhoneType.PERSONAL, ann.getPhones().get(0).getPhonetype());
+
+        assertEquals(10, records.get(1).getLine());
+        assertEquals("Bob", records.get(1).getContact().getFirstname());
+    }
+
+    @Test
+    void next_mapsForeignTypeParameters() throws IOException {
+        ContactRequestDto contact = readAll("BEGIN:VCARD\nVERSION:2.1\nN:Doe;Jane\n"
+                + "item1.EMAIL;type=INTERNET;type=HOME:jane@home.com\n"
+                + "EMAIL;INTERNET:jane@x.com\n"
+                + "TEL;CELL;VOICE:+1555\n"
+                + "TEL;TYPE=\"work,voice\":+1666\n"
+                + "END:VCARD\n").get(0).getContact();
+
+        assertEquals(List.of(EmailType.PERSONAL, EmailType.OTHER),
+                contact.getEmails().stream().map(e -> e.getEmailtype()).toList());
+        assertEquals(List.of(PhoneType.PERSONAL, PhoneType.WORK),
+                contact.getPhones().stream().map(p -> p.getPhonetype()).toList());
+    }
+
+    @Test
+    void next_reportsCardWithoutEnd() throws IOException {
+        List<ContactImportRecord> records = readAll("BEGIN:VCARD\nFN:Cut off\n");
+
+        assertEquals(1, records.size());
+        assertEquals("vCard has no END:VCARD", records.get(0).getError());
+    }
+}
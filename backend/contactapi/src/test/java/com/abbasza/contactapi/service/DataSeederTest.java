@@ -0,0 +1,115 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.model.Contact;
+import com.abbasza.contactapi.repository.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO",
+        "seed.users=20",
+        "seed.contacts=500",
+        "seed.threads=3",
+        "seed.chunk-size=40"
+})
+@ActiveProfiles({"dev", "seed"})
+class DataSeederTest {
+    private static final String SEEDED_CONTACTS = "SELECT count(*) FROM contacts c JOIN app_user u ON u.id = c.user_id "
+            + "WHERE u.email = ?";
+
+    @Autowired
+    private DataSeeder dataSeeder;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void run_seedsEveryUserWithSkewedAddressBooks() {
+        assertEquals(20, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM app_user WHERE email LIKE ?", Integer.class, "seed-%" + DataSeeder.EMAIL_DOMAIN));
+        assertEquals(500, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM contacts c JOIN app_user u ON u.id = c.user_id WHERE u.email LIKE ?",
+                Integer.class, "seed-%" + DataSeeder.EMAIL_DOMAIN));
+
+        long[] sizes = dataSeeder.addressBookSizes();
+        assertEquals(500, Arrays.stream(sizes).sum());
+        assertTrue(sizes[0] > 5 * sizes[19]);
+        assertEquals(sizes[0], jdbcTemplate.queryForObject(SEEDED_CONTACTS, Long.class, DataSeeder.email(0)));
+        assertEquals(sizes[19], jdbcTemplate.queryForObject(SEEDED_CONTACTS, Long.class, DataSeeder.email(19)));
+        assertEquals(1L, userRepo.findContactsVersionById(
+                userRepo.findUserByEmail(DataSeeder.email(0)).orElseThrow().getId()).orElseThrow());
+    }
+
+    @Test
+    void run_writesTheSameContactsForTheSameSeed() {
+        UUID userId = userRepo.findUserByEmail(DataSeeder.email(3)).orElseThrow().getId();
+        long size = dataSeeder.addressBookSizes()[3];
+        List<Contact> expected = dataSeeder.contacts(3, size);
+
+        Set<UUID> seeded = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM contacts WHERE user_id = ?", UUID.class, userId));
+        assertEquals(expected.stream().map(Contact::getId).collect(Collectors.toSet()), seeded);
+
+        int emails = expected.stream().mapToInt(contact -> contact.getEmails().size()).sum();
+        assertEquals(emails, jdbcTemplate.queryForObject("SELECT count(*) FROM contact_email e "
+                + "JOIN contacts c ON c.id = e.contact_id WHERE c.user_id = ?", Integer.class, userId));
+        assertEquals(expected.get(0).getFirstName(), dataSeeder.contacts(3, 1).get(0).getFirstName());
+    }
+
+    @Test
+    void run_rewritesOnlyUnfinishedAddressBooks() throws Exception {
+        UUID userId = userRepo.findUserByEmail(DataSeeder.email(3)).orElseThrow().getId();
+        Set<UUID> seeded = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM contacts WHERE user_id = ?", UUID.class, userId));
+        Integer total = jdbcTemplate.queryForObject("SELECT count(*) FROM contacts", Integer.class);
+        // as if the run had stopped after user 3's first chunk
+        jdbcTemplate.update("DELETE FROM contacts WHERE user_id = ? AND id <> ?", userId, seeded.iterator().next());
+        jdbcTemplate.update("UPDATE app_user SET contacts_version = 0 WHERE id = ?", userId);
+
+        dataSeeder.run(new DefaultApplicationArguments());
+
+        assertEquals(seeded, new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM contacts WHERE user_id = ?", UUID.class, userId)));
+        assertEquals(total, jdbcTemplate.queryForObject("SELECT count(*) FROM contacts", Integer.class));
+        assertEquals(1L, userRepo.findContactsVersionById(userId).orElseThrow());
+    }
+
+    @Test
+    void run_insertsUsersMissingFromAnInterruptedUserInsert() throws Exception {
+        Integer total = jdbcTemplate.queryForObject("SELECT count(*) FROM contacts", Integer.class);
+        // as if the run had stopped before its last users were inserted
+        String lastUsers = "SELECT id FROM app_user WHERE email IN (?, ?, ?)";
+        Object[] emails = {DataSeeder.email(17), DataSeeder.email(18), DataSeeder.email(19)};
+        jdbcTemplate.update("DELETE FROM contact_email WHERE contact_id IN (SELECT id FROM contacts WHERE user_id IN ("
+                + lastUsers + "))", emails);
+        jdbcTemplate.update("DELETE FROM contact_phone WHERE contact_id IN (SELECT id FROM contacts WHERE user_id IN ("
+                + lastUsers + "))", emails);
+        jdbcTemplate.update("DELETE FROM contacts WHERE user_id IN (" + lastUsers + ")", emails);
+        jdbcTemplate.update("DELETE FROM app_user WHERE email IN (?, ?, ?)", emails);
+
+        dataSeeder.run(new DefaultApplicationArguments());
+
+        assertEquals(20, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM app_user WHERE email LIKE ?", Integer.class, "seed-%" + DataSeeder.EMAIL_DOMAIN));
+        assertEquals(total, jdbcTemplate.queryForObject("SELECT count(*) FROM contacts", Integer.class));
+        assertEquals(dataSeeder.addressBookSizes()[19],
+                jdbcTemplate.queryForObject(SEEDED_CONTACTS, Long.class, DataSeeder.email(19)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.abbasza.contactapi.service;
+
+import com.abbasza.contactapi.dto.ContactResponseDto;
+import com.abbasza.contactapi.repository.ContactRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresContactSearchEngineTest {
+
+    @Mock
+    private ContactRepo contactRepo;
+
+    @InjectMocks
+    private PostgresContactSearchEngine postgresContactSearchEngine;
+
+    @Test
+    void toPrefixQuery_joinsWordsAsPrefixTerms() {
+        assertEquals("john:* & do:*", PostgresContactSearchEngine.toPrefixQuery("john do"));
+        assertEquals("o:* & brien:*", PostgresContactSearchEngine.toPrefixQuery("o'brien"));
+        assertEquals("", PostgresContactSearchEngine.toPrefixQuery("&|!"));
+    }
+
+    @Test
+    void toLikePattern_escapesWildcards() {
+        assertEquals("%50\\%\\_off%", PostgresContactSearchEngine.toLikePattern("50%_off"));
+        assertEquals("%a\\\\b%", PostgresContactSearchEngine.toLikePattern("a\\b"));
+    }
+
+    @Test
+    void search_blankQuery_listsContactsWithoutSearching() {
+        UUID userId = UUID.randomUUID();
+        List<ContactResponseDto> contacts = List.of(new ContactResponseDto(UUID.randomUUID(), null, "John", "Doe"));
+        when(contactRepo.findFirstContactSummariesByUserId(userId, PageRequest.of(2, 10))).thenReturn(contacts);
+
+        assertEquals(contacts, postgresContactSearchEngine.search(userId, "   ", PageRequest.of(2, 10)));
+        assertEquals(List.of(), postgresContactSearchEngine.search(userId, null, PageRequest.of(0, 10)));
+
+        verify(contactRepo, never()).searchContactsRanked(any(), any(), any(), any(), anyInt(), anyLong());
+    }
+
+    @Test
+    void search_passesTermPatternAndPage() {
+        UUID userId = UUID.randomUUID();
+
+        postgresContactSearchEngine.search(userId, " John ", PageRequest.of(1, 20));
+
+        verify(contactRepo).searchContactsRanked(userId, "john:*", "%john%", "john", 20, 20L);
+    }
+}
@@ -0,0 +1,19 @@
+package com.abbasza.contactapi.service;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * {@link ContactServiceCascadeTest} on the {@code schema.sql} DDL; runs when
+ * {@code PG_TEST_URL} points at a Postgres database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${PG_TEST_URL}",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.orm.jdbc.bind=INFO"
+})
+@ActiveProfiles(value = "qa", inheritProfiles = false)
+@EnabledIfEnvironmentVariable(named = "PG_TEST_URL", matches = ".+")
+class PostgresContactServiceCascadeTest extends ContactServiceCascadeTest {
+}
@@ -2,8 +2,12 @@ package com.abbasza.contactapi.service;
 
 import com.abbasza.contactapi.dto.ChangePassRequestDto;
 import com.abbasza.contactapi.dto.UpdateUserRequestDto;
+import com.abbasza.contactapi.mapper.UserMapper;
 import com.abbasza.contactapi.model.User;
+import com.abbasza.contactapi.repository.ContactCache;
 import com.abbasza.contactapi.repository.UserRepo;
+import com.abbasza.contactapi.security.PrincipalCache;
+import com.abbasza.contactapi.security.RefreshTokenService;
 import jakarta.security.auth.message.AuthException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,7 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -31,7 +35,19 @@ class UserServiceTest {
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private ContactCache contactCache;
+
+    @Mock
+    private ContactSearchEngine contactSearchEngine;
 
     @InjectMocks
     private UserService userService;
@@ -109,6 +125,7 @@ class UserServiceTest {
 
         assertEquals("new@mail.com", user.getEmail());
         verify(userRepo).save(user);
+        verify(principalCache).invalidate(USER_ID);
     }
 
     @Test
@@ -130,6 +147,17 @@ class UserServiceTest {
         assertEquals("999", user.getPhone());
     }
 
+    @Test
+    void updateUser_shouldRethrowOptimisticLockFailure() {
+        when(userRepo.findUserByEmail(EMAIL))
+                .thenReturn(Optional.of(user));
+        when(userRepo.save(any()))
+                .thenThrow(new OptimisticLockingFailureException("stale user"));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> userService.updateUser(EMAIL, new UpdateUserRequestDto()));
+    }
+
     // ========== CHANGE PASSWORD ==========
 
     @Test
@@ -150,20 +178,45 @@ class UserServiceTest {
         assertTrue(result);
         assertEquals("newHash", user.getPassword());
         verify(userRepo).save(user);
+        verify(refreshTokenService).revokeAll(USER_ID);
+        verify(principalCache).invalidate(USER_ID);
     }
 
     @Test
     void changePassword_shouldFailOnWrongOldPassword() {
         ChangePassRequestDto dto = new ChangePassRequestDto();
         dto.setOldpassword("wrong");
+        dto.setNewpassword("new");
 
         when(userRepo.findUserByEmail(EMAIL))
                 .thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(any(), any()))
+        when(passwordEncoder.matches("wrong", "hashedPass"))
                 .thenReturn(false);
 
-        assertThrows(IllegalArgumentException.class,
+        assertThrows(AuthException.class,
+                () -> userService.changePassword(EMAIL, dto));
+        verify(passwordEncoder, never()).encode(any());
+        verify(userRepo, never()).save(any());
+    }
+
+    @Test
+    void changePassword_shouldRethrowOptimisticLockFailure() {
+        ChangePassRequestDto dto = new ChangePassRequestDto();
+        dto.setOldpassword("old");
+        dto.setNewpassword("new");
+
+        when(userRepo.findUserByEmail(EMAIL))
+                .thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("old", "hashedPass"))
+                .thenReturn(true);
+        when(passwordEncoder.encode("new"))
+                .thenReturn("newHash");
+        when(userRepo.save(any()))
+                .thenThrow(new OptimisticLockingFailureException("stale user"));
+
+        assertThrows(OptimisticLockingFailureException.class,
                 () -> userService.changePassword(EMAIL, dto));
+        verify(refreshTokenService, never()).revokeAll(any());
     }
 
     // ========== DELETE USER ==========
@@ -176,5 +229,8 @@ class UserServiceTest {
         userService.deleteUser(EMAIL);
 
         verify(userRepo).deleteById(USER_ID);
+        verify(principalCache).invalidate(USER_ID);
+        verify(contactCache).evictAll();
+        verify(contactSearchEngine).onUserDeleted(USER_ID);
     }
 }
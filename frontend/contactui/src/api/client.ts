@@ -1,16 +1,60 @@
+import {
+  clearToken,
+  getRefreshToken,
+  getToken,
+  setRefreshToken,
+  setToken,
+} from '../lib/auth';
+import type { LoginResponse } from '../types/auth';
+
 const baseUrl = import.meta.env.VITE_API_PATH;
 
 function getAuthHeader(): Record<string, string> {
-  const token = localStorage.getItem('auth_token');
+  const token = getToken();
   if (!token) return {};
   return { Authorization: `Bearer ${token}` };
 }
 
 function handleUnauthorized(): void {
-  localStorage.removeItem('auth_token');
+  clearToken();
   window.location.replace('/');
 }
 
+let refreshing: Promise<boolean> | null = null;
+
+/** Trades the stored refresh token for a new token pair; concurrent callers share one request. */
+function refreshSession(): Promise<boolean> {
+  const refreshToken = getRefreshToken();
+  if (!refreshToken) return Promise.resolve(false);
+  if (!refreshing) {
+    refreshing = fetch(buildUrl('/auth/refresh'), {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify({ refreshToken }),
+    })
+      .then(async (res) => {
+        if (!res.ok) return false;
+        const body = (await res.json()) as LoginResponse;
+        setToken(body.jwt);
+        setRefreshToken(body.refreshToken);
+        return true;
+      })
+      .catch(() => false)
+      .finally(() => {
+        refreshing = null;
+      });
+  }
+  return refreshing;
+}
+
+/** Sends the request and, on 401, retries it once after refreshing the access token. */
+async function send(request: () => Promise<Response>): Promise<Response> {
+  const res = await request();
+  if (res.status !== 401 || !getToken()) return res;
+  if (!(await refreshSession())) return res;
+  return request();
+}
+
 function buildUrl(
   path: string,
   params?: Record<string, string | number>,
@@ -28,7 +72,7 @@ function buildUrl(
 }
 
 async function handleResponse<T>(res: Response): Promise<T> {
-  if (res.status === 401 && localStorage.getItem('auth_token') != null) {
+  if (res.status === 401 && getToken() != null) {
     handleUnauthorized();
     throw new Error('Session expired. Please log in again.');
   }
@@ -56,20 +100,24 @@ export async function apiGet<T>(
   params?: Record<string, string | number>,
 ): Promise<T> {
   const url = buildUrl(path, params);
-  const res = await fetch(url, { method: 'GET', headers: getAuthHeader() });
+  const res = await send(() =>
+    fetch(url, { method: 'GET', headers: getAuthHeader() }),
+  );
   return handleResponse<T>(res);
 }
 
 export async function apiPost<T>(path: string, body: unknown): Promise<T> {
   const url = buildUrl(path);
-  const res = await fetch(url, {
-    method: 'POST',
-    headers: {
-      'Content-Type': 'application/json',
-      ...getAuthHeader(),
-    },
-    body: JSON.stringify(body),
-  });
+  const res = await send(() =>
+    fetch(url, {
+      method: 'POST',
+      headers: {
+        'Content-Type': 'application/json',
+        ...getAuthHeader(),
+      },
+      body: JSON.stringify(body),
+    }),
+  );
   return handleResponse<T>(res);
 }
 
@@ -80,14 +128,17 @@ export async function apiPut<T>(
   options?: { skip401Logout?: boolean },
 ): Promise<T> {
   const url = buildUrl(path);
-  const res = await fetch(url, {
-    method: 'PUT',
-    headers: {
-      'Content-Type': 'application/json',
-      ...getAuthHeader(),
-    },
-    body: JSON.stringify(body),
-  });
+  const request = () =>
+    fetch(url, {
+      method: 'PUT',
+      headers: {
+        'Content-Type': 'application/json',
+        ...getAuthHeader(),
+      },
+      body: JSON.stringify(body),
+    });
+  // A 401 here means a rejected credential, not an expired session, so do not refresh
+  const res = options?.skip401Logout ? await request() : await send(request);
   if (res.status === 401 && options?.skip401Logout) {
     const text = await res.text();
     let message = text;
@@ -105,7 +156,9 @@ export async function apiPut<T>(
 
 export async function apiDelete(path: string): Promise<void> {
   const url = buildUrl(path);
-  const res = await fetch(url, { method: 'DELETE', headers: getAuthHeader() });
+  const res = await send(() =>
+    fetch(url, { method: 'DELETE', headers: getAuthHeader() }),
+  );
   if (res.status === 401) {
     handleUnauthorized();
     throw new Error('Session expired. Please log in again.');
@@ -1,13 +1,13 @@
 import { apiGet, apiPost, apiPut, apiDelete } from './client';
 import type {
-  SpringPage,
+  PageEnvelope,
   ContactSummary,
   ContactDetailResponse,
   ContactRequest,
 } from '../types/contact';
 
 export function getContactPage(page: number, size: number) {
-  return apiGet<SpringPage<ContactSummary>>('/contact', { page, size });
+  return apiGet<PageEnvelope<ContactSummary>>('/contact', { page, size });
 }
 
 export function searchContacts(query: string) {
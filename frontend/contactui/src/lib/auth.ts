@@ -1,4 +1,5 @@
 const AUTH_TOKEN_KEY = 'auth_token';
+const REFRESH_TOKEN_KEY = 'refresh_token';
 
 export function getToken(): string | null {
   return localStorage.getItem(AUTH_TOKEN_KEY);
@@ -8,8 +9,17 @@ export function setToken(jwt: string): void {
   localStorage.setItem(AUTH_TOKEN_KEY, jwt);
 }
 
+export function getRefreshToken(): string | null {
+  return localStorage.getItem(REFRESH_TOKEN_KEY);
+}
+
+export function setRefreshToken(refreshToken: string): void {
+  localStorage.setItem(REFRESH_TOKEN_KEY, refreshToken);
+}
+
 export function clearToken(): void {
   localStorage.removeItem(AUTH_TOKEN_KEY);
+  localStorage.removeItem(REFRESH_TOKEN_KEY);
 }
 
 export function isAuthenticated(): boolean {
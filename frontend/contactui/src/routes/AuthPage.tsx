@@ -1,7 +1,7 @@
 import { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { apiPost } from '../api/client';
-import { setToken } from '../lib/auth';
+import { setRefreshToken, setToken } from '../lib/auth';
 import { useTheme } from '../lib/theme';
 import type { LoginResponse, SignupResponseDto } from '../types/auth';
 import {
@@ -57,6 +57,7 @@ export default function AuthPage() {
         password: loginPassword,
       });
       setToken(res.jwt);
+      setRefreshToken(res.refreshToken);
       navigate('/contacts');
     } catch (err) {
       setError(err instanceof Error ? err.message : 'Login failed.');
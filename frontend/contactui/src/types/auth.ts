@@ -6,6 +6,7 @@ export interface LoginRequest {
 export interface LoginResponse {
   userId: string;
   jwt: string;
+  refreshToken: string;
 }
 
 export interface SignupRequest {
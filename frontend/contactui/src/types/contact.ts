@@ -32,14 +32,11 @@ export interface ContactRequest {
   phones: ContactPhoneDto[];
 }
 
-export interface SpringPage<T> {
+export interface PageEnvelope<T> {
+  v: number;
   content: T[];
-  totalPages: number;
-  totalElements: number;
-  last: boolean;
+  page: number;
   size: number;
-  number: number;
-  first: boolean;
-  numberOfElements: number;
-  empty: boolean;
+  totalElements: number;
+  totalPages: number;
 }